@@ -1,9 +1,12 @@
 package org.mytodoapp.todo;
 
+import org.mytodoapp.todo.shared.aot.TodoRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(TodoRuntimeHints.class)
 public class ToDoApplication {
 
     public static void main(String[] args) {
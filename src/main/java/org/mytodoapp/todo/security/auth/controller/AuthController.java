@@ -9,6 +9,7 @@ import org.mytodoapp.todo.security.auth.dto.RegisterRequestDto;
 import org.mytodoapp.todo.security.auth.service.AuthService;
 import org.mytodoapp.todo.shared.dto.ApiResponse;
 import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Validated
 @RestController
 @RequiredArgsConstructor
@@ -11,6 +11,7 @@ public interface AuthMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "tasks", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "enabled", constant = "true")
     @Mapping(target = "accountNonExpired", constant = "true")
     @Mapping(target = "accountNonLocked", constant = "true")
@@ -1,5 +1,6 @@
 package org.mytodoapp.todo.security.auth.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.mytodoapp.todo.security.auth.dto.AuthRequestDto;
@@ -8,9 +9,12 @@ import org.mytodoapp.todo.security.auth.dto.RegisterRequestDto;
 import org.mytodoapp.todo.security.auth.mapper.AuthMapper;
 import org.mytodoapp.todo.security.auth.service.AuthService;
 import org.mytodoapp.todo.security.util.JwtUtil;
+import org.mytodoapp.todo.shared.config.MetricsConfig;
+import org.mytodoapp.todo.shared.datasource.ReadYourWritesTracker;
 import org.mytodoapp.todo.shared.exception.DuplicateResourceException;
 import org.mytodoapp.todo.user.entity.User;
 import org.mytodoapp.todo.user.repo.UserRepo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,6 +23,8 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @RequiredArgsConstructor
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -28,6 +34,7 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Override
     @Transactional
@@ -43,6 +50,8 @@ public class AuthServiceImpl implements AuthService {
         User user = authMapper.toUser(dto);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepo.save(user);
+        // Nobody is authenticated yet, so the new account's first logins would otherwise be free to hit a replica
+        readYourWritesTracker.markWritten(user.getEmail());
 
         Map<String, Object> claims = getClaims(user);
         String accessToken = jwtUtil.generateAccessToken(user.getUsername(), claims);
@@ -0,0 +1,38 @@
+package org.mytodoapp.todo.security.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mytodoapp.todo.security.util.BoundedPasswordEncoder;
+import org.mytodoapp.todo.security.util.TimedPasswordEncoder;
+import org.mytodoapp.todo.shared.config.ConcurrencyProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing and token settings, shared by the servlet and the reactive security configuration.
+ */
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class PasswordEncoderConfig {
+
+    /**
+     * Caps concurrent hashes when one is configured, and by default on virtual threads only: platform request
+     * threads are already bounded by Tomcat, and capping them too would only queue logins behind each other.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry, ConcurrencyProperties concurrencyProperties,
+                                           Environment environment) {
+        PasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(10), meterRegistry);
+        int maxConcurrentHashes = concurrencyProperties.getMaxConcurrentPasswordHashes();
+        if (maxConcurrentHashes == 0 && Threading.VIRTUAL.isActive(environment)) {
+            maxConcurrentHashes = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        // Timed inside the bound, so the timers show the hash itself and not the wait for a permit
+        return maxConcurrentHashes > 0 ? new BoundedPasswordEncoder(encoder, maxConcurrentHashes) : encoder;
+    }
+
+}
@@ -0,0 +1,59 @@
+package org.mytodoapp.todo.security.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mytodoapp.todo.security.filter.ReactiveJwtAuthenticationFilter;
+import org.mytodoapp.todo.security.model.ReactiveCustomUserDetailsService;
+import org.mytodoapp.todo.security.util.JwtUtil;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * {@link SecurityConfig} for the reactive profile: stateless JWT authentication with the same access rules
+ * for the endpoints served here.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(
+            ServerHttpSecurity http,
+            JwtUtil jwtUtil,
+            ReactiveCustomUserDetailsService userDetailsService,
+            MeterRegistry meterRegistry
+    ) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                // The servlet chain answers unauthenticated requests with 403 as well
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .authorizeExchange(
+                        auth -> auth
+                                // Probes and the Prometheus scrape; keep them off the public port (management.server.port)
+                                .matchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                                .pathMatchers("/api/users/**").hasRole("ADMIN")
+                                .anyExchange().authenticated()
+                )
+                .addFilterAt(new ReactiveJwtAuthenticationFilter(jwtUtil, userDetailsService, meterRegistry),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+}
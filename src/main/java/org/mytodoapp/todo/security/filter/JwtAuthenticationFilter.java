@@ -1,5 +1,9 @@
 package org.mytodoapp.todo.security.filter;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,20 +11,26 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.mytodoapp.todo.security.model.CustomUserDetailsService;
 import org.mytodoapp.todo.security.util.JwtUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public static final String TOKEN_CHECK_TIMER = "todo.security.token.check";
+
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -30,32 +40,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String token;
-        final String email;
 
         if  (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        token = authHeader.substring(7);
-        email = jwtUtil.extractEmail(token);
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-            if (jwtUtil.isTokenValid(token, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        // Times the token check alone, tagged with its outcome; the rest of the chain is timed by http.server.requests
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            outcome = authenticate(authHeader.substring(7));
+        } catch (ExpiredJwtException e) {
+            outcome = "expired";
+            throw e;
+        } catch (JwtException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (UsernameNotFoundException e) {
+            outcome = "unknown_user";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TOKEN_CHECK_TIMER)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private String authenticate(String token) {
+        final String email = jwtUtil.extractEmail(token);
+        if (email == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return "skipped";
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+
+        if (!jwtUtil.isTokenValid(token, userDetails.getUsername())) {
+            return "rejected";
+        }
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return "authenticated";
+    }
+
 }
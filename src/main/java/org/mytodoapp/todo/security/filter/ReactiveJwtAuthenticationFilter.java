@@ -0,0 +1,80 @@
+package org.mytodoapp.todo.security.filter;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.security.util.JwtUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link JwtAuthenticationFilter} for the reactive profile, recording the same token check timer.
+ * A token that fails the check leaves the exchange unauthenticated, so the security chain answers 403.
+ * Not a bean: WebFlux would also run every {@link WebFilter} bean outside the security chain.
+ */
+@RequiredArgsConstructor
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return authenticate(authHeader.substring(7))
+                .onErrorResume(ExpiredJwtException.class, e -> Mono.just(TokenCheck.failed("expired")))
+                .onErrorResume(JwtException.class, e -> Mono.just(TokenCheck.failed("invalid")))
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.just(TokenCheck.failed("unknown_user")))
+                .doOnError(e -> sample.stop(timer("error")))
+                .flatMap(check -> {
+                    sample.stop(timer(check.outcome()));
+                    return check.authentication() == null
+                            ? chain.filter(exchange)
+                            : chain.filter(exchange)
+                                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(check.authentication()));
+                });
+    }
+
+    private Mono<TokenCheck> authenticate(String token) {
+        return Mono.fromCallable(() -> jwtUtil.extractEmail(token))
+                .flatMap(email -> userDetailsService.findByUsername(email)
+                        .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found: " + email))))
+                .map(userDetails -> jwtUtil.isTokenValid(token, userDetails.getUsername())
+                        ? new TokenCheck("authenticated", new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities()))
+                        : TokenCheck.failed("rejected"))
+                .defaultIfEmpty(TokenCheck.failed("skipped"));
+    }
+
+    private Timer timer(String outcome) {
+        return Timer.builder(JwtAuthenticationFilter.TOKEN_CHECK_TIMER)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record TokenCheck(String outcome, Authentication authentication) {
+
+        static TokenCheck failed(String outcome) {
+            return new TokenCheck(outcome, null);
+        }
+    }
+
+}
@@ -1,12 +1,14 @@
 package org.mytodoapp.todo.security.model;
 
 import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.datasource.ReplicaRead;
 import org.mytodoapp.todo.user.entity.User;
 import org.mytodoapp.todo.user.repo.UserRepo;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
@@ -15,6 +17,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     private final UserRepo userRepo;
 
     @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#email")
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
          User user = userRepo.findByEmail(email)
                 .orElseThrow( () -> new UsernameNotFoundException("User not found: " + email));
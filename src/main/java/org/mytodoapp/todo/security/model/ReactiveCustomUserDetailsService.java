@@ -0,0 +1,24 @@
+package org.mytodoapp.todo.security.model;
+
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.user.repo.ReactiveUserRepo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Service
+public class ReactiveCustomUserDetailsService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepo userRepo;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String email) {
+        return userRepo.findByEmail(email)
+                .map(CustomUserDetails::new);
+    }
+
+}
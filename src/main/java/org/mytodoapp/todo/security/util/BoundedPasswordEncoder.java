@@ -0,0 +1,47 @@
+package org.mytodoapp.todo.security.util;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many hashes run at once. BCrypt is pure CPU work that never yields, so on virtual threads an
+ * unbounded burst of logins would occupy every carrier thread and stall all other requests until it is done.
+ * Waiting for a permit parks the virtual thread and frees its carrier.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrentHashes) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentHashes, true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bounded(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return bounded(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T bounded(Supplier<T> hash) {
+        permits.acquireUninterruptibly();
+        try {
+            return hash.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+}
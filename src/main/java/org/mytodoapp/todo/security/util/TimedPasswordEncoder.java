@@ -0,0 +1,55 @@
+package org.mytodoapp.todo.security.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long hashing and matching take. BCrypt is deliberately slow, so these timers show
+ * how much of the register and login latency the configured work factor accounts for.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    public static final String ENCODE_TIMER = "todo.password.encode";
+    public static final String MATCHES_TIMER = "todo.password.matches";
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(ENCODE_TIMER, "hashed", meterRegistry);
+        this.matchTimer = timer(MATCHES_TIMER, "match", meterRegistry);
+        this.mismatchTimer = timer(MATCHES_TIMER, "mismatch", meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long started = System.nanoTime();
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        (matches ? matchTimer : mismatchTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(String name, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+}
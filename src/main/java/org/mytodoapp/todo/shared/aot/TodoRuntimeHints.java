@@ -0,0 +1,98 @@
+package org.mytodoapp.todo.shared.aot;
+
+import org.mytodoapp.todo.security.config.JwtProperties;
+import org.mytodoapp.todo.shared.config.ConcurrencyProperties;
+import org.mytodoapp.todo.shared.config.ReplicaProperties;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.dto.TaskVersionUpdateDto;
+import org.mytodoapp.todo.task.entity.Task;
+import org.mytodoapp.todo.user.entity.Role;
+import org.mytodoapp.todo.user.entity.User;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative package). Spring AOT covers the beans it
+ * generates code for; these are the types and files that are still reached by name at runtime.
+ */
+public class TodoRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Generated by MapStruct, so referenced by name rather than by class literal
+    static final List<String> MAPPER_IMPLEMENTATIONS = List.of(
+            "org.mytodoapp.todo.task.mapper.TaskMapperImpl",
+            "org.mytodoapp.todo.user.mapper.UserMapperImpl",
+            "org.mytodoapp.todo.security.auth.mapper.AuthMapperImpl"
+    );
+
+    // jjwt-api creates these through Classes.newInstance(String); jjwt-impl is only on the runtime classpath
+    static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            // Found through the service files below
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String mapper : MAPPER_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(mapper),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String type : JJWT_IMPLEMENTATIONS) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        hints.resources()
+                .registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer")
+                .registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer")
+                .registerPattern("META-INF/services/io.jsonwebtoken.CompressionCodec");
+
+        BindableRuntimeHintsRegistrar.forTypes(JwtProperties.class, TaskProperties.class,
+                ReplicaProperties.class, ConcurrencyProperties.class).registerHints(hints, classLoader);
+
+        // Entities are read and written by Hibernate through fields and accessors; the task DTOs are
+        // built by the JPQL constructor expression and the native task count and version projections
+        for (Class<?> type : List.of(Task.class, User.class, Role.class)) {
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (Class<?> type : List.of(TaskResponseDto.class, TaskCountDto.class, TaskVersionUpdateDto.class)) {
+            hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Typesafe Config reads caffeine.conf on top of the reference.conf of caffeine-jcache
+        hints.resources()
+                .registerPattern("caffeine.conf")
+                .registerPattern("reference.conf")
+                .registerPattern("db/migration/*.sql")
+                .registerPattern("db/migration/*.sql.conf");
+    }
+
+}
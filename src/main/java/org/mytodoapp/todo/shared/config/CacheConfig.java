@@ -0,0 +1,31 @@
+package org.mytodoapp.todo.shared.config;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "users-by-email";
+    public static final String TASK = "task";
+    public static final String TASKS = "tasks";
+    public static final String TASK_PAGES = "task-pages";
+    public static final String TASK_SHARDS = "task-shards";
+
+    /**
+     * Hands Hibernate the JCache manager Spring Boot built from caffeine.conf, so the second-level
+     * cache regions share its bounds and statistics instead of living in a second, unbounded manager.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.mytodoapp.todo.shared.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mytodoapp.todo.shared.filter.ConcurrencyLimitFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyProperties.class)
+public class ConcurrencyConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+    // A request only holds a connection for part of its time, so a couple of requests per connection keep it busy
+    private static final int REQUESTS_PER_CONNECTION = 2;
+
+    /**
+     * Runs ahead of Spring Security, whose JWT filter already needs a connection to load the user.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "concurrency.request-limit", name = "enabled")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyProperties properties, DataSource dataSource, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        ConcurrencyProperties.RequestLimit limit = properties.getRequestLimit();
+        int maxConcurrentRequests = limit.getMaxConcurrentRequests() > 0
+                ? limit.getMaxConcurrentRequests()
+                : poolSize(dataSource) * REQUESTS_PER_CONNECTION;
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxConcurrentRequests, limit.getAcquireTimeout(), objectMapper, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+    // Unwraps the read replica routing too, down to the primary's pool
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool after all
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.mytodoapp.todo.shared.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency")
+public class ConcurrencyProperties {
+
+    private RequestLimit requestLimit = new RequestLimit();
+    // 0: half the available processors, at least one, on virtual threads and no limit otherwise
+    private int maxConcurrentPasswordHashes = 0;
+
+    @Getter
+    @Setter
+    public static class RequestLimit {
+        private boolean enabled = false;
+        // 0: twice the connection pool size
+        private int maxConcurrentRequests = 0;
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+    }
+
+}
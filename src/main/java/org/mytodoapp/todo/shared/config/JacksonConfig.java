@@ -0,0 +1,29 @@
+package org.mytodoapp.todo.shared.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JsonProperties.class)
+public class JacksonConfig {
+
+    /**
+     * With {@code json.buffer-pool-size} set (low-footprint profile), request threads share one bounded pool of
+     * read and write buffers, instead of each thread that ever wrote JSON keeping a set of its own.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer bufferPoolCustomizer(JsonProperties jsonProperties) {
+        return builder -> {
+            if (jsonProperties.getBufferPoolSize() > 0) {
+                builder.factory(JsonFactory.builder()
+                        .recyclerPool(JsonRecyclerPools.newBoundedPool(jsonProperties.getBufferPoolSize()))
+                        .build());
+            }
+        };
+    }
+
+}
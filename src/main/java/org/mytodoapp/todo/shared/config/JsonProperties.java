@@ -0,0 +1,15 @@
+package org.mytodoapp.todo.shared.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "json")
+public class JsonProperties {
+
+    // 0: Jackson's default, a set of buffers per thread
+    private int bufferPoolSize = 0;
+
+}
@@ -0,0 +1,21 @@
+package org.mytodoapp.todo.shared.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timer behind the {@code @Timed} service classes, tagged with the class and method name.
+     */
+    public static final String SERVICE_TIMER = "todo.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+}
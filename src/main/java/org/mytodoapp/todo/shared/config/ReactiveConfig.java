@@ -0,0 +1,57 @@
+package org.mytodoapp.todo.shared.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Infrastructure for the reactive profile (application-reactive.properties).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    /**
+     * Boot skips the JDBC pool once an R2DBC connection factory exists; JPA, Flyway and the background
+     * jobs still need it, so it is built from the same spring.datasource properties. With read replicas
+     * the routing one from {@link ReplicaConfig} takes its place.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Tomcat is on the classpath for the servlet stack and would otherwise be picked for WebFlux too;
+     * Netty's event loops keep many idle long-polling connections cheap.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<ReactorResourceFactory> resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(factory::setResourceFactory);
+        return factory;
+    }
+
+    /**
+     * The R2DBC transaction manager stays out of the context, where it would displace the JPA one.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.mytodoapp.todo.shared.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.mytodoapp.todo.shared.datasource.ReadYourWritesTracker;
+import org.mytodoapp.todo.shared.datasource.ReplicaRoutingDataSource;
+import org.mytodoapp.todo.shared.datasource.ReplicaSet;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfig {
+
+    /**
+     * Read replicas (datasource.replicas.enabled). The primary pool keeps the spring.datasource settings and
+     * the application's {@link DataSource} routes between it and the replicas.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled")
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class Routing {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        public ReplicaSet replicaSet(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                     ReplicaProperties properties, DataSourceProperties dataSourceProperties,
+                                     MeterRegistry meterRegistry) {
+            List<HikariConfig> configs = new ArrayList<>();
+            for (String url : properties.getUrls()) {
+                HikariConfig config = new HikariConfig();
+                config.setPoolName("replica-" + (configs.size() + 1));
+                config.setJdbcUrl(url);
+                config.setUsername(properties.getUsername() != null
+                        ? properties.getUsername() : dataSourceProperties.determineUsername());
+                config.setPassword(properties.getPassword() != null
+                        ? properties.getPassword() : dataSourceProperties.determinePassword());
+                config.setMaximumPoolSize(properties.getMaximumPoolSize());
+                config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+                config.setReadOnly(true);
+                // A replica that is down at startup is simply left out until a health check reaches it
+                config.setInitializationFailTimeout(-1);
+                configs.add(config);
+            }
+            return new ReplicaSet(primary, configs, properties.getMaxReplicationLag(), meterRegistry);
+        }
+
+        /**
+         * Lazy, so the physical connection is only chosen at the first statement, once the transaction
+         * has declared whether it is read-only.
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary, ReplicaSet replicaSet,
+                                     ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+            return new LazyConnectionDataSourceProxy(
+                    new ReplicaRoutingDataSource(primary, replicaSet, readYourWritesTracker, meterRegistry));
+        }
+    }
+
+}
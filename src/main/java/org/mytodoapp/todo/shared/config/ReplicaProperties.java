@@ -0,0 +1,35 @@
+package org.mytodoapp.todo.shared.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+    private List<String> urls = new ArrayList<>();
+    // Empty: the primary's credentials
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    // Replicas further behind the primary are left out of the rotation until they catch up
+    private Duration maxReplicationLag = Duration.ofSeconds(2);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * How long reads of freshly written data stay on the primary: a replica in the rotation was at most
+     * max-replication-lag behind at its last check, and can drift for one more interval before the next.
+     */
+    public Duration readYourWritesWindow() {
+        return maxReplicationLag.plus(healthCheckInterval);
+    }
+
+}
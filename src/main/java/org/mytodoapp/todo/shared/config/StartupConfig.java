@@ -0,0 +1,24 @@
+package org.mytodoapp.todo.shared.config;
+
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps the startup work out of lazy initialization (fast-startup profile): the shard directory preparation,
+     * and the search index rebuild where it is enabled, must run before the first request, not during it. The
+     * profile itself turns the rebuild off and indexes each user on their first search. Spring Boot already keeps
+     * the beans with {@code @Scheduled} methods eager.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter startupWorkLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> SmartInitializingSingleton.class.isAssignableFrom(beanType)
+                || TaskShardDirectory.class.isAssignableFrom(beanType);
+    }
+
+}
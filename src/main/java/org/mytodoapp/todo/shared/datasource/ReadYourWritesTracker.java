@@ -0,0 +1,79 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import org.mytodoapp.todo.shared.config.ReplicaProperties;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers whose data was written recently, so reads of it stay on the primary until every replica in the
+ * rotation is guaranteed to have replayed the change. Keys are the owner ids named by {@link ReplicaRead#key()}
+ * and the name (email) of the authenticated user that wrote.
+ * <p>
+ * Task and user events are observed when they are published rather than after commit: a reader that sees the
+ * bumped ETag version must not be sent to a replica that may not have the change yet.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<Object, Long> deadlines = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(ReplicaProperties properties) {
+        this.windowNanos = properties.readYourWritesWindow().toNanos();
+    }
+
+    /**
+     * Marks the key now and, inside a transaction, again once it completes, so the window is counted from the commit.
+     */
+    public void markWritten(Object key) {
+        if (key == null) {
+            return;
+        }
+        mark(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    mark(key);
+                }
+            });
+        }
+    }
+
+    public boolean wroteRecently(Object key) {
+        if (key == null) {
+            return false;
+        }
+        Long deadline = deadlines.get(key);
+        return deadline != null && deadline - System.nanoTime() > 0;
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        markWritten(event.userId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        markWritten(event.userId());
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5s}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        deadlines.values().removeIf(deadline -> deadline - now <= 0);
+    }
+
+    private void mark(Object key) {
+        deadlines.put(key, System.nanoTime() + windowNanos);
+    }
+
+}
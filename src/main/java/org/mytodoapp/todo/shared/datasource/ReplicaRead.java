@@ -0,0 +1,23 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets the read-only transaction of the annotated method run on a replica when replicas are configured.
+ * Only reads that tolerate a little staleness opt in; every other statement stays on the primary.
+ * <p>
+ * {@link #key()} is a SpEL expression over the method arguments (e.g. {@code "#userId"}) naming whose data
+ * is read. While that key, or the authenticated user, has written recently the read goes to the primary.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+
+    String key() default "";
+
+}
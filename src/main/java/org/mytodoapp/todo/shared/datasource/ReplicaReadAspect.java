@@ -0,0 +1,48 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the key of a {@link ReplicaRead} method to the thread while it runs. The connection is only taken
+ * at the first statement, so it does not matter whether the transaction starts inside or outside this advice.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Around("@annotation(replicaRead)")
+    public Object bind(ProceedingJoinPoint joinPoint, ReplicaRead replicaRead) throws Throwable {
+        Object key = replicaRead.key().isEmpty() ? null : evaluate(joinPoint, replicaRead.key());
+        ReplicaReadContext.Binding previous = ReplicaReadContext.bind(key);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaReadContext.restore(previous);
+        }
+    }
+
+    private Object evaluate(ProceedingJoinPoint joinPoint, String expression) {
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs(),
+                parameterNameDiscoverer);
+        return expressions.computeIfAbsent(expression, parser::parseExpression).getValue(context);
+    }
+
+}
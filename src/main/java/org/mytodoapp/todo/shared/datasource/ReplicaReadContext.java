@@ -0,0 +1,38 @@
+package org.mytodoapp.todo.shared.datasource;
+
+/**
+ * The {@link ReplicaRead} method running on the current thread, if any.
+ */
+final class ReplicaReadContext {
+
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    private ReplicaReadContext() {
+    }
+
+    static Binding current() {
+        return CURRENT.get();
+    }
+
+    // Returns the binding it replaces, to be handed back to restore
+    static Binding bind(Object key) {
+        Binding previous = CURRENT.get();
+        CURRENT.set(new Binding(key));
+        return previous;
+    }
+
+    static void restore(Binding previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * @param key whose data is read, {@code null} when the method did not name one
+     */
+    record Binding(Object key) {
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Sends the read-only transactions of {@link ReplicaRead} methods to a replica and everything else to the
+ * primary. Such a read still goes to the primary when its key or the authenticated user wrote recently, when no
+ * replica is available, or when the chosen replica refuses the connection. Any other connection counts as a
+ * write by the authenticated user.
+ * <p>
+ * The routing looks at the transaction's read-only flag, which is only set once the transaction has begun, so
+ * this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    public static final String ROUTE_COUNTER = "todo.datasource.route";
+
+    private final DataSource primary;
+    private final ReplicaSet replicaSet;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Counter writes;
+    private final Counter primaryReads;
+    private final Counter recentWriteReads;
+    private final Counter noReplicaReads;
+    private final Counter replicaFailedReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaSet replicaSet,
+                                    ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicaSet = replicaSet;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.writes = counter("primary", "write", meterRegistry);
+        this.primaryReads = counter("primary", "read", meterRegistry);
+        this.recentWriteReads = counter("primary", "recent-write", meterRegistry);
+        this.noReplicaReads = counter("primary", "no-replica", meterRegistry);
+        this.replicaFailedReads = counter("primary", "replica-failed", meterRegistry);
+        this.replicaReads = counter("replica", "read", meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWritesTracker.markWritten(currentUser());
+            writes.increment();
+            return primary.getConnection();
+        }
+        ReplicaReadContext.Binding binding = ReplicaReadContext.current();
+        if (binding == null) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        if (readYourWritesTracker.wroteRecently(binding.key())
+                || readYourWritesTracker.wroteRecently(currentUser())) {
+            recentWriteReads.increment();
+            return primary.getConnection();
+        }
+
+        Optional<ReplicaSet.Replica> replica = replicaSet.next();
+        if (replica.isEmpty()) {
+            noReplicaReads.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.get().getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            replicaSet.markUnavailable(replica.get(), e);
+            replicaFailedReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // The primary pool is what callers sizing against "the" pool (e.g. the request limit) are after
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static Counter counter(String target, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder(ROUTE_COUNTER)
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+}
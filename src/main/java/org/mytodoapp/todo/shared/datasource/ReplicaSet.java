@@ -0,0 +1,175 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools of the read replicas and their health. Every check reads the primary's WAL position first;
+ * a replica that has replayed past it is caught up, otherwise its lag is the age of the last transaction it
+ * replayed. Replicas that fail the check or lag more than the configured maximum are left out of the rotation,
+ * and all of them start out until their first check.
+ * <p>
+ * The replay age overstates the lag after the primary was idle for a while, which only sends reads to the
+ * primary a little longer. It compares the replica's clock with the primary's commit timestamps, so the hosts
+ * are assumed to run NTP.
+ */
+@Slf4j
+public class ReplicaSet implements AutoCloseable {
+
+    public static final String LAG_GAUGE = "todo.datasource.replica.lag";
+    public static final String AVAILABLE_GAUGE = "todo.datasource.replica.available";
+
+    private static final String PRIMARY_POSITION_QUERY = "select pg_current_wal_lsn()::text";
+    // A server that is not in recovery (a stand-in outside production) counts as caught up
+    private static final String REPLICA_LAG_QUERY = """
+            select not pg_is_in_recovery() or pg_last_wal_replay_lsn() >= cast(? as pg_lsn),
+                   extract(epoch from now() - pg_last_xact_replay_timestamp())
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    public ReplicaSet(DataSource primary, List<HikariConfig> replicaConfigs, Duration maxReplicationLag,
+                      MeterRegistry meterRegistry) {
+        if (replicaConfigs.isEmpty()) {
+            throw new IllegalArgumentException("datasource.replicas.urls must name at least one replica");
+        }
+        this.primary = primary;
+        this.maxLagSeconds = maxReplicationLag.toMillis() / 1000.0;
+        this.replicas = new ArrayList<>(replicaConfigs.size());
+        for (HikariConfig config : replicaConfigs) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(config.getPoolName(), new HikariDataSource(config));
+            Gauge.builder(LAG_GAUGE, replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder(AVAILABLE_GAUGE, replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+    }
+
+    /**
+     * The next replica in the rotation, round robin, or empty when none is available.
+     */
+    public Optional<Replica> next() {
+        int start = Math.floorMod(cursor.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.available) {
+                return Optional.of(replica);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        String primaryPosition;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PRIMARY_POSITION_QUERY)) {
+            rs.next();
+            primaryPosition = rs.getString(1);
+        } catch (SQLException e) {
+            // Without the primary there is nothing to compare against, and reads fall back to it anyway
+            log.warn("Replica health check skipped, primary unavailable: {}", e.getMessage());
+            return;
+        }
+        for (Replica replica : replicas) {
+            check(replica, primaryPosition);
+        }
+    }
+
+    /**
+     * Takes a replica out of the rotation until its next successful check, e.g. after a failed connection attempt.
+     */
+    public void markUnavailable(Replica replica, Exception cause) {
+        if (replica.available) {
+            log.warn("Replica {} is unavailable: {}", replica.name, cause.getMessage());
+        }
+        replica.available = false;
+        replica.lagSeconds = Double.NaN;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void check(Replica replica, String primaryPosition) {
+        double lagSeconds;
+        try (Connection connection = replica.pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(REPLICA_LAG_QUERY)) {
+            statement.setString(1, primaryPosition);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                boolean caughtUp = rs.getBoolean(1);
+                double replayAge = rs.getDouble(2);
+                // No replayed transaction yet: the lag is unknown
+                lagSeconds = caughtUp ? 0 : rs.wasNull() ? Double.POSITIVE_INFINITY : Math.max(replayAge, 0);
+            }
+        } catch (SQLException e) {
+            markUnavailable(replica, e);
+            return;
+        }
+
+        boolean available = lagSeconds <= maxLagSeconds;
+        if (available != replica.available) {
+            if (available) {
+                log.info("Replica {} is back in the rotation, lag {} s", replica.name, lagSeconds);
+            } else {
+                log.warn("Replica {} lags {} s behind the primary, leaving it out", replica.name, lagSeconds);
+            }
+        }
+        replica.lagSeconds = lagSeconds;
+        replica.available = available;
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        Connection getConnection() throws SQLException {
+            return pool.getConnection();
+        }
+    }
+
+}
@@ -1,14 +1,17 @@
 package org.mytodoapp.todo.shared.exception;
 
+import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import org.mytodoapp.todo.shared.dto.ApiResponse;
 import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.List;
 
@@ -34,6 +37,40 @@ public class GlobalExceptionHandler {
         return responseBuilder.error(HttpStatus.BAD_REQUEST, "Validation Failed", errors);
     }
 
+    // The reactive profile's counterpart of MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Object>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        List<String> errors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(err -> err.getField() + ": " + err.getDefaultMessage())
+                .toList();
+
+        return responseBuilder.error(HttpStatus.BAD_REQUEST, "Validation Failed", errors);
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConstraintViolationException(ConstraintViolationException ex) {
+        List<String> errors = ex.getConstraintViolations()
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .toList();
+
+        return responseBuilder.error(HttpStatus.BAD_REQUEST, "Validation Failed", errors);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return responseBuilder.error(HttpStatus.PRECONDITION_FAILED, ex.getLocalizedMessage(), List.of(ex.getMessage()));
+    }
+
+    // A concurrent writer bumped the version between our read and our flush
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        String message = "The resource was modified concurrently; fetch it again and retry.";
+        return responseBuilder.error(HttpStatus.PRECONDITION_FAILED, message, List.of(message));
+    }
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ApiResponse<Object>> handleDuplicateResourceException(DuplicateResourceException ex) {
         return responseBuilder.error(HttpStatus.CONFLICT, ex.getLocalizedMessage(), List.of(ex.getMessage()));
@@ -0,0 +1,13 @@
+package org.mytodoapp.todo.shared.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String entityName, Object id) {
+        super(entityName + " with id " + id + " has been modified; fetch it again and retry with its current ETag.");
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.mytodoapp.todo.shared.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mytodoapp.todo.shared.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits a bounded number of requests at a time and answers the rest with 503 once they have waited for
+ * the acquire timeout. On virtual threads nothing else caps concurrency, so without it a burst of slow
+ * clients would all queue on the connection pool and fail there after its much longer timeout.
+ * Async dispatches are not limited again after their initial request. A request that goes async keeps its
+ * permit until it completes, as a streaming export holds a connection on the async executor for all of its
+ * read; an SSE subscription, which holds none, gives it back once its initial request returns.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration acquireTimeout, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        // Fair, so requests are admitted in arrival order instead of the newest ones barging in
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("todo.requests.rejected")
+                .description("Requests turned away by the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("todo.requests.in.flight", this, ConcurrencyLimitFilter::inFlight)
+                .description("Requests holding a concurrency limit permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        boolean holdUntilComplete = false;
+        try {
+            filterChain.doFilter(request, response);
+            holdUntilComplete = request.isAsyncStarted() && !isEventStream(response);
+        } finally {
+            if (holdUntilComplete) {
+                // The container only processes the completion after this dispatch returns, so it cannot be missed
+                request.getAsyncContext().addListener(new PermitRelease());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    int inFlight() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(status, "Server busy",
+                List.of("Too many concurrent requests, please retry shortly")));
+    }
+
+    // Releases once, on whichever of the callbacks comes first
+    private final class PermitRelease implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A new async cycle drops the registered listeners unless they add themselves again
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+    }
+
+}
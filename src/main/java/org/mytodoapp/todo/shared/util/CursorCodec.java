@@ -0,0 +1,39 @@
+package org.mytodoapp.todo.shared.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last seen id of a keyset page into an opaque, URL-safe cursor token.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String PREFIX = "id:";
+
+    public String encode(Long lastId) {
+        if (lastId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+}
@@ -19,6 +19,18 @@ public class ResponseBuilder {
         return ResponseEntity.ok(ApiResponse.ok(data));
     }
 
+    public <T> ResponseEntity<ApiResponse<T>> ok(T data, String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(ApiResponse.ok(data));
+    }
+
+    public <T> ResponseEntity<ApiResponse<T>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .build();
+    }
+
     public ResponseEntity<Void> noContent() {
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,29 @@
+package org.mytodoapp.todo.task.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.mytodoapp.todo.task.feed.TaskChangeFeed;
+import org.mytodoapp.todo.task.writebehind.TaskWriteBuffer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TaskProperties.class)
+public class TaskConfig {
+
+    @Bean
+    public MeterBinder taskMeterBinder(TaskChangeFeed taskChangeFeed, TaskWriteBuffer taskWriteBuffer) {
+        return registry -> {
+            Gauge.builder("todo.task.feed.subscribers", taskChangeFeed, TaskChangeFeed::subscriberCount)
+                    .description("Open task change stream connections")
+                    .register(registry);
+            Gauge.builder("todo.task.write.buffer.pending", taskWriteBuffer, TaskWriteBuffer::pendingCount)
+                    .description("Tasks with buffered updates not yet written")
+                    .register(registry);
+        };
+    }
+
+}
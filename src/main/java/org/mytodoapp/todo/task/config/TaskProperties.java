@@ -0,0 +1,99 @@
+package org.mytodoapp.todo.task.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "task")
+public class TaskProperties {
+
+    private Pagination pagination = new Pagination();
+    private Export export = new Export();
+    private Batch batch = new Batch();
+    private Search search = new Search();
+    private Feed feed = new Feed();
+    private WriteBehind writeBehind = new WriteBehind();
+    private Purge purge = new Purge();
+    private Sharding sharding = new Sharding();
+
+    @Getter
+    @Setter
+    public static class Pagination {
+        private int defaultLimit = 50;
+        private int maxLimit = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Export {
+        private int flushEvery = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        private int maxOperations = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+        private boolean rebuildOnStartup = true;
+        private boolean lazyLoad = false;
+        private int defaultLimit = 20;
+        private int maxLimit = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Feed {
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        private int bufferSize = 64;
+        private int maxConnectionsPerUser = 5;
+        private int dispatchThreads = 4;
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        private boolean enabled = false;
+        private Duration quietPeriod = Duration.ofMillis(500);
+        private Duration maxDelay = Duration.ofSeconds(5);
+        private Duration flushInterval = Duration.ofMillis(100);
+        private int maxPendingTasks = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Purge {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofMinutes(1);
+        private int chunkSize = 1_000;
+        private Duration pauseBetweenChunks = Duration.ofMillis(100);
+        private int maxChunksPerRun = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Sharding {
+        private boolean enabled = false;
+        // Shards 1..N; shard 0 is always the primary datasource
+        private List<String> urls = new ArrayList<>();
+        // Empty: the primary's credentials
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int moveChunkSize = 1_000;
+        // How long a move waits for a user's running task calls before giving up
+        private Duration moveLockTimeout = Duration.ofSeconds(5);
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.mytodoapp.todo.task.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.mytodoapp.todo.shared.config.ReplicaProperties;
+import org.mytodoapp.todo.task.shard.TaskShardRoutingDataSource;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.boot.web.reactive.context.ReactiveWebApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class TaskShardConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "task.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TaskShards taskShards(DataSource dataSource) {
+        return TaskShards.single(dataSource);
+    }
+
+    /**
+     * Task sharding (task.sharding.enabled). Shard 0 keeps the spring.datasource settings; the application's
+     * {@link DataSource} routes each task call to the shard of the user it is for.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "task.sharding", name = "enabled")
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class Sharded {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource shard0DataSource(DataSourceProperties properties) {
+            return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        }
+
+        @Bean
+        public TaskShards taskShards(@Qualifier("shard0DataSource") HikariDataSource home, TaskProperties taskProperties,
+                                     DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                     ApplicationContext context) {
+            // Both route by binding the connection to the thread and would have to agree on the pool per call
+            if (replicaProperties.isEnabled()) {
+                throw new IllegalStateException("task.sharding cannot be combined with datasource.replicas");
+            }
+            // The reactive task API reads and writes over R2DBC, which this routing does not reach
+            if (context instanceof ReactiveWebApplicationContext) {
+                throw new IllegalStateException("task.sharding is not supported by the reactive profile");
+            }
+            TaskProperties.Sharding sharding = taskProperties.getSharding();
+            List<DataSource> shards = new ArrayList<>();
+            shards.add(home);
+            for (String url : sharding.getUrls()) {
+                HikariConfig config = new HikariConfig();
+                config.setPoolName("task-shard-" + shards.size());
+                config.setJdbcUrl(url);
+                config.setUsername(sharding.getUsername() != null
+                        ? sharding.getUsername() : dataSourceProperties.determineUsername());
+                config.setPassword(sharding.getPassword() != null
+                        ? sharding.getPassword() : dataSourceProperties.determinePassword());
+                config.setMaximumPoolSize(sharding.getMaximumPoolSize());
+                shards.add(new HikariDataSource(config));
+            }
+            return new TaskShards(shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(TaskShards taskShards) {
+            List<DataSource> shards = new ArrayList<>();
+            for (int shard = 0; shard < taskShards.count(); shard++) {
+                shards.add(taskShards.dataSource(shard));
+            }
+            return new TaskShardRoutingDataSource(shards);
+        }
+    }
+
+}
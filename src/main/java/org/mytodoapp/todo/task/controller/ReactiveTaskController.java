@@ -0,0 +1,120 @@
+package org.mytodoapp.todo.task.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.dto.ApiResponse;
+import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
+import org.mytodoapp.todo.task.dto.TaskRequestDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.service.ReactiveTaskService;
+import org.mytodoapp.todo.task.version.TaskVersionTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link TaskController} for the reactive profile, with the same paths, headers and response bodies.
+ * Batch, merge patch, search and the change stream are only served by the servlet stack.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Validated
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/users/{userId}/tasks")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+    private final ResponseBuilder responseBuilder;
+    private final TaskVersionTracker taskVersionTracker;
+
+    @PostMapping()
+    public Mono<ResponseEntity<ApiResponse<TaskResponseDto>>> addTask(
+            @PathVariable Long userId,
+            @Valid @RequestBody TaskRequestDto taskRequestDto
+    ) {
+        return taskService.add(userId, taskRequestDto)
+                .map(responseBuilder::created);
+    }
+
+    // Without a cursor or limit the whole list is returned, as before paging was added; either one asks for a page
+    @GetMapping()
+    public Mono<? extends ResponseEntity<? extends ApiResponse<?>>> getAllTasks(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = taskVersionTracker.etag(userId);
+        if (taskVersionTracker.matches(ifNoneMatch, etag)) {
+            return Mono.just(responseBuilder.notModified(etag));
+        }
+        if (cursor == null && limit == null) {
+            return taskService.findAllByUserId(userId)
+                    .collectList()
+                    .map(tasks -> responseBuilder.ok(tasks, etag));
+        }
+        return taskService.findPageByUserId(userId, cursor, limit, includeTotal)
+                .map(page -> responseBuilder.ok(page, etag));
+    }
+
+    // Each task is written as soon as its row arrives; the query only reads ahead as far as the client keeps up
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskResponseDto> exportTasks(@PathVariable Long userId) {
+        return taskService.exportByUserId(userId);
+    }
+
+    @GetMapping("/count")
+    public Mono<ResponseEntity<ApiResponse<TaskCountDto>>> countTasks(@PathVariable Long userId) {
+        return taskService.countByUserId(userId)
+                .map(responseBuilder::ok);
+    }
+
+    @GetMapping("/{taskId}")
+    public Mono<ResponseEntity<ApiResponse<TaskResponseDto>>> getTaskById(
+            @PathVariable Long userId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        Mono<ResponseEntity<ApiResponse<TaskResponseDto>>> load = taskService.findTaskByUserId(userId, taskId)
+                .map(task -> responseBuilder.ok(task, taskVersionTracker.taskEtag(task)));
+        if (ifNoneMatch == null) {
+            return load;
+        }
+        // A revalidation reads only the version, so a 304 never loads the task itself
+        return taskService.findTaskVersionByUserId(userId, taskId)
+                .map(taskVersionTracker::taskEtag)
+                .flatMap(etag -> taskVersionTracker.matches(ifNoneMatch, etag)
+                        ? Mono.just(responseBuilder.<TaskResponseDto>notModified(etag))
+                        : load);
+    }
+
+    @PutMapping("/{taskId}")
+    public Mono<ResponseEntity<ApiResponse<TaskResponseDto>>> updateTask(
+            @PathVariable Long userId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TaskRequestDto dto
+    ) {
+        Long expectedVersion = taskVersionTracker.expectedVersion(ifMatch);
+        return taskService.update(userId, taskId, dto, expectedVersion)
+                .map(updatedTask -> responseBuilder.ok(updatedTask, taskVersionTracker.taskEtag(updatedTask)));
+    }
+
+    @DeleteMapping("/{taskId}")
+    public Mono<ResponseEntity<Void>> deleteTask(
+            @PathVariable Long userId,
+            @PathVariable Long taskId
+    ) {
+        return taskService.delete(userId, taskId)
+                .then(Mono.fromSupplier(responseBuilder::noContent));
+    }
+
+}
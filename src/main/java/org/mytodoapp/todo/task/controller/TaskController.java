@@ -1,61 +1,161 @@
 package org.mytodoapp.todo.task.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.mytodoapp.todo.shared.dto.ApiResponse;
 import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.mytodoapp.todo.task.dto.TaskBatchRequestDto;
+import org.mytodoapp.todo.task.dto.TaskBatchResponseDto;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
 import org.mytodoapp.todo.task.dto.TaskRequestDto;
 import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.feed.TaskChangeFeed;
 import org.mytodoapp.todo.task.service.TaskService;
+import org.mytodoapp.todo.task.version.TaskVersionTracker;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
+/**
+ * Task endpoints for any user under {@code /api/users/{userId}/tasks}, which is admin only, and for the
+ * authenticated user under {@code /api/me/tasks}. Both paths share these handlers; {@link TaskOwner} gives
+ * each the owner id, from the path or from the principal.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Validated
 @RequiredArgsConstructor
 @RestController
-@RequestMapping("/api/users/{userId}/tasks")
+@RequestMapping({"/api/users/{userId}/tasks", "/api/me/tasks"})
 public class TaskController {
 
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final TaskService taskService;
     private final ResponseBuilder responseBuilder;
+    private final TaskVersionTracker taskVersionTracker;
+    private final TaskChangeFeed taskChangeFeed;
 
     @PostMapping()
     public ResponseEntity<ApiResponse<TaskResponseDto>> addTask(
-            @PathVariable Long userId,
+            @TaskOwner Long userId,
             @Valid @RequestBody TaskRequestDto taskRequestDto
     ) {
         TaskResponseDto createdTask = taskService.add(userId, taskRequestDto);
         return responseBuilder.created(createdTask);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<TaskBatchResponseDto>> applyBatch(
+            @TaskOwner Long userId,
+            @Valid @RequestBody TaskBatchRequestDto dto
+    ) {
+        TaskBatchResponseDto result = taskService.applyBatch(userId, dto);
+        return responseBuilder.ok(result);
+    }
+
+    // Without a cursor or limit the whole list is returned, as before paging was added; either one asks for a page
     @GetMapping()
-    public ResponseEntity<ApiResponse<List<TaskResponseDto>>> getAllTasks(@PathVariable Long userId){
-        List<TaskResponseDto> tasks = taskService.findAllByUserId(userId);
+    public ResponseEntity<? extends ApiResponse<?>> getAllTasks(
+            @TaskOwner Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String etag = taskVersionTracker.etag(userId);
+        if (taskVersionTracker.matches(ifNoneMatch, etag)) {
+            return responseBuilder.notModified(etag);
+        }
+        if (cursor == null && limit == null) {
+            List<TaskResponseDto> tasks = taskService.findAllByUserId(userId);
+            return responseBuilder.ok(tasks, etag);
+        }
+        TaskPageDto page = taskService.findPageByUserId(userId, cursor, limit, includeTotal);
+        return responseBuilder.ok(page, etag);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(@TaskOwner Long userId) {
+        StreamingResponseBody body = out -> taskService.exportByUserId(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<TaskResponseDto>>> searchTasks(
+            @TaskOwner Long userId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit
+    ) {
+        List<TaskResponseDto> tasks = taskService.search(userId, query, limit);
         return responseBuilder.ok(tasks);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(@TaskOwner Long userId) {
+        return taskChangeFeed.subscribe(userId);
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<ApiResponse<TaskCountDto>> countTasks(@TaskOwner Long userId) {
+        TaskCountDto count = taskService.countByUserId(userId);
+        return responseBuilder.ok(count);
+    }
+
     @GetMapping("/{taskId}")
-    public ResponseEntity<ApiResponse<TaskResponseDto>> getTaskById(@PathVariable Long userId, @PathVariable Long taskId){
+    public ResponseEntity<ApiResponse<TaskResponseDto>> getTaskById(
+            @TaskOwner Long userId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // A revalidation reads only the version, so a 304 never loads the task itself
+        if (ifNoneMatch != null) {
+            String currentEtag = taskVersionTracker.taskEtag(taskService.findTaskVersionByUserId(userId, taskId));
+            if (taskVersionTracker.matches(ifNoneMatch, currentEtag)) {
+                return responseBuilder.notModified(currentEtag);
+            }
+        }
         TaskResponseDto task = taskService.findTaskByUserId(userId, taskId);
-        return responseBuilder.ok(task);
+        return responseBuilder.ok(task, taskVersionTracker.taskEtag(task));
     }
 
     @PutMapping("/{taskId}")
     public ResponseEntity<ApiResponse<TaskResponseDto>> updateTask(
-            @PathVariable Long userId,
+            @TaskOwner Long userId,
             @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody TaskRequestDto dto
     ) {
-        TaskResponseDto updatedTask = taskService.update(userId, taskId, dto);
-        return responseBuilder.ok(updatedTask);
+        Long expectedVersion = taskVersionTracker.expectedVersion(ifMatch);
+        TaskResponseDto updatedTask = taskService.update(userId, taskId, dto, expectedVersion);
+        return responseBuilder.ok(updatedTask, taskVersionTracker.taskEtag(updatedTask));
+    }
+
+    @PatchMapping(value = "/{taskId}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<TaskResponseDto>> patchTask(
+            @TaskOwner Long userId,
+            @PathVariable Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode mergePatch
+    ) {
+        Long expectedVersion = taskVersionTracker.expectedVersion(ifMatch);
+        TaskResponseDto patchedTask = taskService.patch(userId, taskId, mergePatch, expectedVersion);
+        return responseBuilder.ok(patchedTask, taskVersionTracker.taskEtag(patchedTask));
     }
 
     @DeleteMapping("/{taskId}")
     public ResponseEntity<Void> deleteTask(
-            @PathVariable Long userId,
+            @TaskOwner Long userId,
             @PathVariable Long taskId
     ) {
         taskService.delete(userId, taskId);
@@ -0,0 +1,31 @@
+package org.mytodoapp.todo.task.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.dto.ApiResponse;
+import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.service.TaskService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/users/task-counts")
+public class TaskCountController {
+
+    private final TaskService taskService;
+    private final ResponseBuilder responseBuilder;
+
+    @GetMapping()
+    public ResponseEntity<ApiResponse<List<TaskCountDto>>> getAllTaskCounts() {
+        List<TaskCountDto> counts = taskService.findAllCounts();
+        return responseBuilder.ok(counts);
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.mytodoapp.todo.task.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The id of the user whose tasks a handler works on: the {@code {userId}} path variable under
+ * {@code /api/users/{userId}/tasks}, the authenticated user under {@code /api/me/tasks}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TaskOwner {
+}
@@ -0,0 +1,59 @@
+package org.mytodoapp.todo.task.controller;
+
+import org.mytodoapp.todo.security.model.CustomUserDetails;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Resolves {@link TaskOwner} parameters, so one set of handlers serves both task paths. The path variable is
+ * converted like a {@code @PathVariable}; a malformed one fails the same way.
+ */
+public class TaskOwnerArgumentResolver implements HandlerMethodArgumentResolver {
+
+    static final String USER_ID_VARIABLE = "userId";
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(TaskOwner.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) webRequest.getAttribute(
+                HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        String userId = variables != null ? variables.get(USER_ID_VARIABLE) : null;
+        if (userId == null) {
+            return principalId();
+        }
+        try {
+            return binderFactory.createBinder(webRequest, null, USER_ID_VARIABLE)
+                    .convertIfNecessary(userId, parameter.getParameterType(), parameter);
+        } catch (TypeMismatchException e) {
+            throw new MethodArgumentTypeMismatchException(userId, parameter.getParameterType(), USER_ID_VARIABLE,
+                    parameter, e.getCause());
+        }
+    }
+
+    // Security only lets authenticated users through to /api/me, so a missing principal is a configuration error
+    private static Long principalId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal.getUser().getId();
+        }
+        throw new IllegalStateException("No authenticated user to own the tasks");
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.mytodoapp.todo.task.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.dto.ApiResponse;
+import org.mytodoapp.todo.shared.util.ResponseBuilder;
+import org.mytodoapp.todo.task.dto.TaskShardDto;
+import org.mytodoapp.todo.task.dto.TaskShardMoveDto;
+import org.mytodoapp.todo.task.dto.TaskShardMoveRequestDto;
+import org.mytodoapp.todo.task.shard.TaskShardRebalancer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "task.sharding", name = "enabled")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/users/task-shards")
+public class TaskShardController {
+
+    private final TaskShardRebalancer taskShardRebalancer;
+    private final ResponseBuilder responseBuilder;
+
+    @GetMapping()
+    public ResponseEntity<ApiResponse<List<TaskShardDto>>> getShards() {
+        List<TaskShardDto> shards = taskShardRebalancer.summary();
+        return responseBuilder.ok(shards);
+    }
+
+    @PostMapping("/moves")
+    public ResponseEntity<ApiResponse<TaskShardMoveDto>> moveUser(@Valid @RequestBody TaskShardMoveRequestDto dto) {
+        TaskShardMoveDto move = taskShardRebalancer.move(dto.getUserId(), dto.getShard());
+        return responseBuilder.ok(move);
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<ApiResponse<List<TaskShardMoveDto>>> rebalance(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        List<TaskShardMoveDto> moves = taskShardRebalancer.rebalance(limit);
+        return responseBuilder.ok(moves);
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.mytodoapp.todo.task.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchOperationDto {
+
+    @NotNull(message = "Operation type is required")
+    private TaskBatchOperationType type;
+
+    private Long taskId;
+    private String title;
+    private String description;
+
+}
@@ -0,0 +1,7 @@
+package org.mytodoapp.todo.task.dto;
+
+public enum TaskBatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
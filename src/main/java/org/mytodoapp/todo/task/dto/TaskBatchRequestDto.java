@@ -0,0 +1,19 @@
+package org.mytodoapp.todo.task.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchRequestDto {
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid TaskBatchOperationDto> operations;
+
+}
@@ -0,0 +1,18 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResponseDto {
+
+    private List<TaskBatchResultDto> results;
+    private Integer succeeded;
+    private Integer failed;
+
+}
@@ -0,0 +1,19 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResultDto {
+
+    private Integer index;
+    private TaskBatchOperationType type;
+    private Long taskId;
+    private Integer status;
+    private String error;
+    private TaskResponseDto task;
+
+}
@@ -0,0 +1,15 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCountDto {
+
+    private Long userId;
+    private Long taskCount;
+
+}
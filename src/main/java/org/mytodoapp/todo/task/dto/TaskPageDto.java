@@ -0,0 +1,20 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageDto {
+
+    private List<TaskResponseDto> items;
+    private String nextCursor;
+    private boolean hasNext;
+    private Integer limit;
+    private Long totalEstimate;
+
+}
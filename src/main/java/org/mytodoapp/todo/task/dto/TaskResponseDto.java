@@ -13,5 +13,6 @@ public class TaskResponseDto {
     private String title;
     private String description;
     private Long userId;
+    private Long version;
 
 }
@@ -0,0 +1,17 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskShardDto {
+
+    private Integer shard;
+    private Long users;
+    // Placed here although the hash now points elsewhere; what a rebalance would move away
+    private Long usersToMove;
+
+}
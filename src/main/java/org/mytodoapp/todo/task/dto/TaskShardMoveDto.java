@@ -0,0 +1,18 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskShardMoveDto {
+
+    private Long userId;
+    private Integer fromShard;
+    private Integer toShard;
+    private Long tasksCopied;
+    private Long tasksRemoved;
+
+}
@@ -0,0 +1,21 @@
+package org.mytodoapp.todo.task.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskShardMoveRequestDto {
+
+    @NotNull(message = "User id is required")
+    private Long userId;
+
+    @NotNull(message = "Target shard is required")
+    @PositiveOrZero(message = "Target shard must not be negative")
+    private Integer shard;
+
+}
@@ -0,0 +1,15 @@
+package org.mytodoapp.todo.task.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskVersionUpdateDto {
+
+    private Long version;
+    private Boolean updated;
+
+}
@@ -2,8 +2,15 @@ package org.mytodoapp.todo.task.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 import org.mytodoapp.todo.user.entity.User;
 
+import java.time.Instant;
+
 @Builder
 @Entity
 @Getter
@@ -11,10 +18,15 @@ import org.mytodoapp.todo.user.entity.User;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "tasks")
+@DynamicUpdate
+// Removing a task only marks it; the purge job deletes the row later
+@SQLDelete(sql = "update tasks set deleted_at = current_timestamp where id = ? and version = ?")
+@SQLRestriction("deleted_at is null")
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -24,8 +36,16 @@ public class Task {
     @Column(name = "description", nullable = false)
     private String description;
 
-    @ManyToOne
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
 }
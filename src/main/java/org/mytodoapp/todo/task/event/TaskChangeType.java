@@ -0,0 +1,7 @@
+package org.mytodoapp.todo.task.event;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
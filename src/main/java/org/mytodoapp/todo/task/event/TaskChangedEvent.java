@@ -0,0 +1,25 @@
+package org.mytodoapp.todo.task.event;
+
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+
+/**
+ * Published by the task service for every task mutation. Listeners that keep derived state
+ * should use {@code @TransactionalEventListener} so they only observe committed changes.
+ *
+ * @param task the task state after the change, {@code null} for {@link TaskChangeType#DELETED}
+ */
+public record TaskChangedEvent(Long userId, Long taskId, TaskChangeType type, TaskResponseDto task) {
+
+    public static TaskChangedEvent created(TaskResponseDto task) {
+        return new TaskChangedEvent(task.getUserId(), task.getId(), TaskChangeType.CREATED, task);
+    }
+
+    public static TaskChangedEvent updated(TaskResponseDto task) {
+        return new TaskChangedEvent(task.getUserId(), task.getId(), TaskChangeType.UPDATED, task);
+    }
+
+    public static TaskChangedEvent deleted(Long userId, Long taskId) {
+        return new TaskChangedEvent(userId, taskId, TaskChangeType.DELETED, null);
+    }
+
+}
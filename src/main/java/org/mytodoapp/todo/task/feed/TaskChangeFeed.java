@@ -0,0 +1,239 @@
+package org.mytodoapp.todo.task.feed;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed task changes out to each user's open SSE connections.
+ * Publishing only enqueues into a bounded per-subscriber buffer; a small shared pool drains buffers
+ * on demand, so idle connections hold no thread. A subscriber whose buffer overflows is evicted and
+ * is expected to reconnect and refetch.
+ * <p>
+ * Servlet writes block while the client's TCP buffers are full, so the drains hand each write to a writer
+ * thread and wait at most {@code task.feed.send-timeout} for it. A subscriber whose write takes longer is
+ * evicted as well; its write stays blocked on the writer thread, until the connector's write timeout fails
+ * it, instead of holding one of the few dispatch threads every other subscriber depends on.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed {
+
+    private final TaskProperties.Feed properties;
+    private final ExecutorService dispatcher;
+    private final ExecutorService writer;
+    private final Map<Long, Deque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskChangeFeed(TaskProperties taskProperties) {
+        this(taskProperties,
+                Executors.newFixedThreadPool(taskProperties.getFeed().getDispatchThreads(),
+                        Thread.ofPlatform().name("task-feed-", 0).daemon().factory()),
+                // Grows only by the writes of stalled clients; the others finish within the send timeout
+                Executors.newCachedThreadPool(Thread.ofPlatform().name("task-feed-writer-", 0).daemon().factory()));
+    }
+
+    TaskChangeFeed(TaskProperties taskProperties, ExecutorService dispatcher, ExecutorService writer) {
+        this.properties = taskProperties.getFeed();
+        this.dispatcher = dispatcher;
+        this.writer = writer;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = createEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        Deque<Subscriber> userSubscribers = subscribers.compute(userId, (id, existing) -> {
+            Deque<Subscriber> deque = existing == null ? new ConcurrentLinkedDeque<>() : existing;
+            deque.addLast(subscriber);
+            return deque;
+        });
+        // A new connection displaces the oldest one, which is most likely a client that went away silently
+        while (userSubscribers.size() > properties.getMaxConnectionsPerUser()) {
+            Subscriber oldest = userSubscribers.pollFirst();
+            if (oldest != null) {
+                evict(oldest);
+            }
+        }
+
+        enqueue(subscriber, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    public int subscriberCount(Long userId) {
+        Deque<Subscriber> userSubscribers = subscribers.get(userId);
+        return userSubscribers == null ? 0 : userSubscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Deque<Subscriber> userSubscribers = subscribers.get(event.userId());
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        // Built once; the frames are immutable and shared by every subscriber's buffer
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .name(event.type().name().toLowerCase(Locale.ROOT))
+                .data(event, MediaType.APPLICATION_JSON)
+                .build();
+        userSubscribers.forEach(subscriber -> enqueue(subscriber, frame));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        Deque<Subscriber> userSubscribers = subscribers.remove(event.userId());
+        if (userSubscribers != null) {
+            userSubscribers.forEach(this::evict);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.feed.heartbeat-interval:15s}")
+    public void heartbeat() {
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(s -> enqueue(s, frame)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> open = subscribers.values().stream().flatMap(Deque::stream).toList();
+        subscribers.clear();
+        open.forEach(this::evict);
+        dispatcher.shutdown();
+        writer.shutdown();
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.buffer.offer(frame)) {
+            log.debug("Evicting slow task feed subscriber for user {}", subscriber.userId);
+            evict(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.closed.get() && (frame = subscriber.buffer.poll()) != null) {
+                send(subscriber, frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the emitter already completed
+            remove(subscriber);
+        } catch (TimeoutException e) {
+            log.debug("Evicting stalled task feed subscriber for user {}", subscriber.userId);
+            evict(subscriber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            remove(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Covers a frame enqueued after the loop saw an empty buffer but before the flag was cleared
+        if (!subscriber.closed.get() && !subscriber.buffer.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, Set<DataWithMediaType> frame)
+            throws IOException, InterruptedException, TimeoutException {
+        Future<?> write = writer.submit(() -> {
+            subscriber.emitter.send(frame);
+            return null;
+        });
+        try {
+            write.get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            // complete() waits for an in-flight send, so it runs where a blocked write is allowed to wait
+            writer.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.buffer.clear();
+        subscribers.computeIfPresent(subscriber.userId, (id, deque) -> {
+            deque.remove(subscriber);
+            return deque.isEmpty() ? null : deque;
+        });
+        return true;
+    }
+
+    private static final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+    }
+
+}
@@ -0,0 +1,222 @@
+package org.mytodoapp.todo.task.index;
+
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangeType;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over task title and description, partitioned per user.
+ * Results are ranked with BM25; every query term also matches indexed terms it is a prefix of.
+ * With {@code task.search.lazy-load} a user is only indexed from their first search on; until then their task
+ * changes are not kept.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int TITLE_WEIGHT = 2;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+    private final boolean lazyLoad;
+
+    public TaskSearchIndex(TaskProperties taskProperties) {
+        this.lazyLoad = taskProperties.getSearch().isLazyLoad();
+    }
+
+    public void put(TaskResponseDto task) {
+        users.computeIfAbsent(task.getUserId(), id -> new UserIndex()).put(task);
+    }
+
+    /**
+     * Indexes the user's tasks unless the user is indexed already. The user's index is published before the tasks
+     * are read and stays write locked until they are in, so a change committed meanwhile waits and is applied on
+     * top of them instead of being dropped; a search by the same user waits as well.
+     */
+    public void load(Long userId, Supplier<List<TaskResponseDto>> tasks) {
+        if (users.containsKey(userId)) {
+            return;
+        }
+        UserIndex index = new UserIndex();
+        index.lock.writeLock().lock();
+        try {
+            if (users.putIfAbsent(userId, index) != null) {
+                return;
+            }
+            try {
+                tasks.get().forEach(index::put);
+            } catch (RuntimeException e) {
+                users.remove(userId, index);
+                throw e;
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId, Long taskId) {
+        UserIndex index = users.get(userId);
+        if (index != null) {
+            index.remove(taskId);
+        }
+    }
+
+    public void removeUser(Long userId) {
+        users.remove(userId);
+    }
+
+    public void clear() {
+        users.clear();
+    }
+
+    public List<TaskResponseDto> search(Long userId, String query, int limit) {
+        UserIndex index = users.get(userId);
+        List<String> terms = tokenize(query);
+        if (index == null || terms.isEmpty()) {
+            return List.of();
+        }
+        return index.search(terms, limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.type() == TaskChangeType.DELETED) {
+            remove(event.userId(), event.taskId());
+        } else if (!lazyLoad) {
+            put(event.task());
+        } else {
+            UserIndex index = users.get(event.userId());
+            if (index != null) {
+                index.put(event.task());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        removeUser(event.userId());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Document(TaskResponseDto task, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private static final class UserIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private long totalLength;
+
+        void put(TaskResponseDto task) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            tokenize(task.getTitle()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokenize(task.getDescription()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+            int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+            lock.writeLock().lock();
+            try {
+                removeLocked(task.getId());
+                documents.put(task.getId(), new Document(task, frequencies, length));
+                frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(task.getId(), tf));
+                totalLength += length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long taskId) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(taskId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Long taskId) {
+            Document previous = documents.remove(taskId);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.termFrequencies().keySet()) {
+                Map<Long, Integer> docs = postings.get(term);
+                docs.remove(taskId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= previous.length();
+        }
+
+        List<TaskResponseDto> search(List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                int documentCount = documents.size();
+                if (documentCount == 0) {
+                    return List.of();
+                }
+                double averageLength = (double) totalLength / documentCount;
+
+                Map<Long, Double> scores = new HashMap<>();
+                for (String term : terms) {
+                    Map<String, Map<Long, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+                    for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                        double weight = match.getKey().equals(term) ? 1.0 : PREFIX_MATCH_WEIGHT;
+                        Map<Long, Integer> docs = match.getValue();
+                        double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                        docs.forEach((taskId, tf) -> {
+                            int length = documents.get(taskId).length();
+                            double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                            scores.merge(taskId, weight * idf * norm, Double::sum);
+                        });
+                    }
+                }
+
+                return scores.entrySet()
+                        .stream()
+                        .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .limit(limit)
+                        .map(entry -> documents.get(entry.getKey()).task())
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.mytodoapp.todo.task.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the search index from the database once the context is initialized, before the web server accepts requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndexLoader implements SmartInitializingSingleton {
+
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskRepo taskRepo;
+    private final TaskShards taskShards;
+    private final TaskProperties taskProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!taskProperties.getSearch().isRebuildOnStartup()) {
+            return;
+        }
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        taskSearchIndex.clear();
+        long indexed = 0;
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            indexed += taskShards.callOn(shard, () -> template.execute(status -> {
+                long count = 0;
+                try (Stream<TaskResponseDto> tasks = taskRepo.streamAll()) {
+                    for (TaskResponseDto task : (Iterable<TaskResponseDto>) tasks::iterator) {
+                        taskSearchIndex.put(task);
+                        count++;
+                    }
+                }
+                return count;
+            }));
+        }
+
+        log.info("Task search index rebuilt with {} tasks in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+}
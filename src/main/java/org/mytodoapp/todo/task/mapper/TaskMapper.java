@@ -10,13 +10,22 @@ import org.mytodoapp.todo.task.entity.Task;
 @Mapper(componentModel = "spring")
 public interface TaskMapper {
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     Task toEntity(TaskRequestDto dto);
 
     @Mapping(source = "user.id", target = "userId")
     TaskResponseDto toResponseDto (Task entity);
 
+    @Mapping(source = "taskId", target = "id")
+    @Mapping(source = "userId", target = "userId")
+    @Mapping(source = "version", target = "version")
+    TaskResponseDto toResponseDto(Long taskId, Long userId, Long version, TaskRequestDto dto);
+
     @Mapping(target = "id",  ignore = true)
     @Mapping(target = "user", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateTaskFromDto(TaskRequestDto dto, @MappingTarget Task entity);
 
 }
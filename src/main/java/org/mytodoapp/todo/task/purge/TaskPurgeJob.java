@@ -0,0 +1,116 @@
+package org.mytodoapp.todo.task.purge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.mytodoapp.todo.user.repo.UserRepo;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Hard-deletes soft-deleted tasks, then the tasks and rows of soft-deleted users, in bounded chunks.
+ * Every chunk commits on its own and is followed by a pause, so the purge never holds locks for long
+ * and yields to request traffic; a run stops after a fixed number of chunks and resumes on the next one.
+ * With task sharding, each shard is purged in turn and a user's tasks on the shard they are placed on.
+ */
+@Slf4j
+@Component
+public class TaskPurgeJob {
+
+    private final TaskRepo taskRepo;
+    private final UserRepo userRepo;
+    private final TaskShards taskShards;
+    private final TaskShardDirectory taskShardDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskProperties.Purge properties;
+
+    public TaskPurgeJob(TaskRepo taskRepo, UserRepo userRepo, TaskShards taskShards, TaskShardDirectory taskShardDirectory,
+                        PlatformTransactionManager transactionManager, TaskProperties taskProperties) {
+        this.taskRepo = taskRepo;
+        this.userRepo = userRepo;
+        this.taskShards = taskShards;
+        this.taskShardDirectory = taskShardDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = taskProperties.getPurge();
+    }
+
+    @Scheduled(fixedDelayString = "${task.purge.interval:1m}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        Run run = new Run(properties.getMaxChunksPerRun());
+        int chunkSize = properties.getChunkSize();
+
+        boolean finished = true;
+        for (int shard = 0; finished && shard < taskShards.count(); shard++) {
+            finished = taskShards.callOn(shard, () -> purgeInChunks(run, () -> taskRepo.purgeDeleted(chunkSize)));
+        }
+        if (finished) {
+            List<Long> userIds = transactionTemplate.execute(status -> userRepo.findDeletedIds(chunkSize));
+            for (Long userId : userIds) {
+                int shard = taskShardDirectory.shardOf(userId);
+                // The foreign key would cascade to the tasks, but in a single statement holding every row lock;
+                // chunking first keeps each transaction short and leaves the row delete almost nothing to do
+                if (!taskShards.callOn(shard, () -> purgeInChunks(run, () -> taskRepo.purgeByUserId(userId, chunkSize)))) {
+                    break;
+                }
+                taskShardDirectory.dropOwner(shard, userId);
+                transactionTemplate.executeWithoutResult(status -> userRepo.purgeById(userId));
+                taskShardDirectory.forget(userId);
+                run.users++;
+            }
+        }
+
+        if (run.tasks > 0 || run.users > 0) {
+            log.info("Purged {} tasks and {} users in {} chunks, {} ms", run.tasks, run.users,
+                    properties.getMaxChunksPerRun() - run.chunksLeft, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    // Deletes until a chunk comes back short; false when the run's chunk budget (or the thread) ran out first
+    private boolean purgeInChunks(Run run, IntSupplier chunk) {
+        while (run.chunksLeft > 0) {
+            run.chunksLeft--;
+            Integer deleted = transactionTemplate.execute(status -> chunk.getAsInt());
+            run.tasks += deleted;
+            if (deleted < properties.getChunkSize()) {
+                return true;
+            }
+            if (!pause()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenChunks());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Run {
+
+        private int chunksLeft;
+        private long tasks;
+        private int users;
+
+        Run(int chunksLeft) {
+            this.chunksLeft = chunksLeft;
+        }
+    }
+
+}
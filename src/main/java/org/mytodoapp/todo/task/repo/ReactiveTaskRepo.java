@@ -0,0 +1,119 @@
+package org.mytodoapp.todo.task.repo;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The R2DBC counterpart of {@link TaskRepo} for the reactive task API. Every query filters out
+ * soft-deleted tasks itself, and writes return the bumped version instead of reading it back.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Repository
+public class ReactiveTaskRepo {
+
+    private static final String SELECT_RESPONSE_DTO = "select id, title, description, user_id, version from tasks ";
+    private static final String RETURNING_RESPONSE_DTO = " returning id, title, description, user_id, version";
+
+    private final DatabaseClient databaseClient;
+
+    // Takes a single value from the sequence Hibernate allocates from; that value lies in a block no one else is handed
+    public Mono<TaskResponseDto> insert(Long userId, String title, String description) {
+        return databaseClient.sql("insert into tasks (id, title, description, user_id) " +
+                        "values (nextval('tasks_id_seq'), :title, :description, :userId)" + RETURNING_RESPONSE_DTO)
+                .bind("title", title)
+                .bind("description", description)
+                .bind("userId", userId)
+                .map(ReactiveTaskRepo::toResponseDto)
+                .one();
+    }
+
+    public Mono<TaskResponseDto> findByIdAndUserId(Long taskId, Long userId) {
+        return databaseClient.sql(SELECT_RESPONSE_DTO + "where id = :taskId and user_id = :userId and deleted_at is null")
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .map(ReactiveTaskRepo::toResponseDto)
+                .one();
+    }
+
+    public Flux<TaskResponseDto> findPageByUserId(Long userId, Long afterId, int limit) {
+        return databaseClient.sql(SELECT_RESPONSE_DTO +
+                        "where user_id = :userId and id > :afterId and deleted_at is null order by id limit :limit")
+                .bind("userId", userId)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepo::toResponseDto)
+                .all();
+    }
+
+    // Rows are fetched fetchSize at a time as the subscriber requests them, so a slow client holds back the query
+    public Flux<TaskResponseDto> streamByUserId(Long userId, int fetchSize) {
+        return databaseClient.sql(SELECT_RESPONSE_DTO + "where user_id = :userId and deleted_at is null order by id")
+                .bind("userId", userId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveTaskRepo::toResponseDto)
+                .all();
+    }
+
+    // Emits the new version, or nothing when the task does not exist for this user
+    public Mono<Long> updateByIdAndUserId(Long taskId, Long userId, String title, String description) {
+        return databaseClient.sql("update tasks set title = :title, description = :description, version = version + 1 " +
+                        "where id = :taskId and user_id = :userId and deleted_at is null returning version")
+                .bind("title", title)
+                .bind("description", description)
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    // Emits the new version, or nothing when the task does not exist or is no longer at the expected version
+    public Mono<Long> updateByIdAndUserIdAndVersion(
+            Long taskId, Long userId, Long expectedVersion, String title, String description) {
+        return databaseClient.sql("update tasks set title = :title, description = :description, version = version + 1 " +
+                        "where id = :taskId and user_id = :userId and version = :expectedVersion and deleted_at is null " +
+                        "returning version")
+                .bind("title", title)
+                .bind("description", description)
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .bind("expectedVersion", expectedVersion)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    public Mono<Long> findVersionByIdAndUserId(Long taskId, Long userId) {
+        return databaseClient.sql("select version from tasks where id = :taskId and user_id = :userId and deleted_at is null")
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    // Only marks the row, like TaskRepo.softDeleteByIdAndUserId; TaskPurgeJob deletes it later
+    public Mono<Long> softDeleteByIdAndUserId(Long taskId, Long userId) {
+        return databaseClient.sql("update tasks set deleted_at = current_timestamp " +
+                        "where id = :taskId and user_id = :userId and deleted_at is null")
+                .bind("taskId", taskId)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static TaskResponseDto toResponseDto(Readable row) {
+        return TaskResponseDto.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .userId(row.get("user_id", Long.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+}
@@ -1,14 +1,126 @@
 package org.mytodoapp.todo.task.repo;
 
+import jakarta.persistence.QueryHint;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.dto.TaskVersionUpdateDto;
 import org.mytodoapp.todo.task.entity.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TaskRepo extends JpaRepository<Task, Long> {
-    List<Task> findTasksByUserId(Long userId);
-    Optional<Task> findByIdAndUserId(Long taskId, Long userId);
+
+    // Reads only the columns the response needs; t.user.id resolves to the FK column without a join
+    String SELECT_RESPONSE_DTO = "select new org.mytodoapp.todo.task.dto.TaskResponseDto(" +
+            "t.id, t.title, t.description, t.user.id, t.version) from Task t ";
+
+    // Derived "UserId" queries join users; these filter on the FK column directly
+    @Query("select t from Task t where t.user.id = :userId")
+    List<Task> findTasksByUserId(@Param("userId") Long userId);
+
+    @Query("select t from Task t where t.id = :taskId and t.user.id = :userId")
+    Optional<Task> findByIdAndUserId(@Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    @Query("select t from Task t where t.user.id = :userId and t.id in :taskIds")
+    List<Task> findByUserIdAndIdIn(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
+
+    @Query(SELECT_RESPONSE_DTO + "where t.id = :taskId and t.user.id = :userId")
+    Optional<TaskResponseDto> findDtoByIdAndUserId(@Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE_DTO + "where t.user.id = :userId order by t.id")
+    List<TaskResponseDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(SELECT_RESPONSE_DTO + "where t.user.id = :userId and t.id > :afterId order by t.id")
+    List<TaskResponseDto> findDtoPageByUserId(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    // Ownership is part of the predicate, so an empty result means the task does not exist for this user.
+    // The statement hands back the bumped version itself, so an update is a single round trip.
+    @Query(value = "update tasks set title = :title, description = :description, version = version + 1 " +
+            "where id = :taskId and user_id = :userId and deleted_at is null returning version", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    Optional<Long> updateByIdAndUserId(
+            @Param("taskId") Long taskId,
+            @Param("userId") Long userId,
+            @Param("title") String title,
+            @Param("description") String description
+    );
+
+    // Conditional form for If-Match. The outer select reads the statement's snapshot, so it still sees the row
+    // when the version did not match: an empty result is a missing task, updated = false a stale version.
+    @Query(value = """
+            with updated as (
+                update tasks set title = :title, description = :description, version = version + 1
+                where id = :taskId and user_id = :userId and version = :version and deleted_at is null
+                returning version
+            )
+            select coalesce((select version from updated), t.version) as version,
+                   exists (select 1 from updated) as updated
+            from tasks t
+            where t.id = :taskId and t.user_id = :userId and t.deleted_at is null
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    Optional<TaskVersionUpdateDto> updateByIdAndUserIdAndVersion(
+            @Param("taskId") Long taskId,
+            @Param("userId") Long userId,
+            @Param("version") Long version,
+            @Param("title") String title,
+            @Param("description") String description
+    );
+
+    @Query("select t.version from Task t where t.id = :taskId and t.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("taskId") Long taskId, @Param("userId") Long userId);
+
+    // Only marks the row; Task's restriction hides it from every query here, updates included, until TaskPurgeJob deletes it
+    @Modifying
+    @Query("update Task t set t.deletedAt = :deletedAt where t.id = :taskId and t.user.id = :userId")
+    int softDeleteByIdAndUserId(
+            @Param("taskId") Long taskId,
+            @Param("userId") Long userId,
+            @Param("deletedAt") Instant deletedAt
+    );
+
+    // The purge statements are native because they must see the rows the entity restriction hides.
+    // Each removes at most :limit rows, so every chunk is a short transaction holding few row locks.
+    @Modifying
+    @Query(value = "delete from tasks where id in " +
+            "(select id from tasks where deleted_at is not null order by id limit :limit)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    int purgeDeleted(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from tasks where id in " +
+            "(select id from tasks where user_id = :userId order by id limit :limit)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "tasks"))
+    int purgeByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE_DTO + "where t.user.id = :userId order by t.id")
+    Stream<TaskResponseDto> streamByUserId(@Param("userId") Long userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    // Feeds the search index rebuild, which has no per-user gate: a deleted user's tasks wait here for the purge
+    @Query(SELECT_RESPONSE_DTO + "where t.user.deletedAt is null order by t.id")
+    Stream<TaskResponseDto> streamAll();
+
 }
@@ -0,0 +1,22 @@
+package org.mytodoapp.todo.task.service;
+
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
+import org.mytodoapp.todo.task.dto.TaskRequestDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTaskService {
+
+    Mono<TaskResponseDto> add(Long userId, TaskRequestDto dto);
+    Mono<TaskResponseDto> update(Long userId, Long taskId, TaskRequestDto dto, Long expectedVersion);
+    Mono<Void> delete(Long userId, Long taskId);
+    Mono<TaskResponseDto> findTaskByUserId(Long userId, Long taskId);
+    Mono<Long> findTaskVersionByUserId(Long userId, Long taskId);
+    Flux<TaskResponseDto> findAllByUserId(Long userId);
+    Mono<TaskPageDto> findPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal);
+    Flux<TaskResponseDto> exportByUserId(Long userId);
+    Mono<TaskCountDto> countByUserId(Long userId);
+
+}
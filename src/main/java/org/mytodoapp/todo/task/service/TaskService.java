@@ -1,16 +1,31 @@
 package org.mytodoapp.todo.task.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.mytodoapp.todo.task.dto.TaskBatchRequestDto;
+import org.mytodoapp.todo.task.dto.TaskBatchResponseDto;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
 import org.mytodoapp.todo.task.dto.TaskRequestDto;
 import org.mytodoapp.todo.task.dto.TaskResponseDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface TaskService  {
 
     TaskResponseDto add(Long userId, TaskRequestDto dto);
-    TaskResponseDto update(Long userId, Long taskId, TaskRequestDto dto);
+    TaskResponseDto update(Long userId, Long taskId, TaskRequestDto dto, Long expectedVersion);
+    TaskResponseDto patch(Long userId, Long taskId, JsonNode mergePatch, Long expectedVersion);
     void delete(Long userId, Long taskId);
     TaskResponseDto findTaskByUserId(Long userId, Long taskId);
+    Long findTaskVersionByUserId(Long userId, Long taskId);
     List<TaskResponseDto> findAllByUserId(Long userId);
+    TaskPageDto findPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal);
+    void exportByUserId(Long userId, OutputStream out) throws IOException;
+    TaskBatchResponseDto applyBatch(Long userId, TaskBatchRequestDto dto);
+    List<TaskResponseDto> search(Long userId, String query, Integer limit);
+    TaskCountDto countByUserId(Long userId);
+    List<TaskCountDto> findAllCounts();
 
 }
@@ -0,0 +1,147 @@
+package org.mytodoapp.todo.task.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.shared.util.CursorCodec;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
+import org.mytodoapp.todo.task.dto.TaskRequestDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.task.mapper.TaskMapper;
+import org.mytodoapp.todo.task.repo.ReactiveTaskRepo;
+import org.mytodoapp.todo.task.service.ReactiveTaskService;
+import org.mytodoapp.todo.user.repo.ReactiveUserRepo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@link TaskServiceImpl} over R2DBC for the reactive profile. Events are published once the
+ * transaction has committed, which is what the transactional listeners fall back to outside one.
+ * Reads are not cached and writes bypass the write-behind buffer.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+@RequiredArgsConstructor
+@Service
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+    private final ReactiveTaskRepo taskRepo;
+    private final ReactiveUserRepo userRepo;
+    private final TaskMapper taskMapper;
+    private final TaskProperties taskProperties;
+    private final CursorCodec cursorCodec;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<TaskResponseDto> add(Long userId, TaskRequestDto dto) {
+        // Bumping the counter first doubles as the user lookup and locks the row until the insert commits
+        return userRepo.adjustTaskCount(userId, 1)
+                .filter(updated -> updated > 0)
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("User", userId)))
+                .then(Mono.defer(() -> taskRepo.insert(userId, dto.getTitle(), dto.getDescription())))
+                .as(transactionalOperator::transactional)
+                .doOnNext(created -> eventPublisher.publishEvent(TaskChangedEvent.created(created)));
+    }
+
+    @Override
+    public Mono<TaskResponseDto> update(Long userId, Long taskId, TaskRequestDto dto, Long expectedVersion) {
+        Mono<Long> version = expectedVersion == null
+                ? taskRepo.updateByIdAndUserId(taskId, userId, dto.getTitle(), dto.getDescription())
+                : taskRepo.updateByIdAndUserIdAndVersion(taskId, userId, expectedVersion, dto.getTitle(), dto.getDescription());
+        return version
+                .switchIfEmpty(Mono.defer(() -> missingOrModified(userId, taskId, expectedVersion)))
+                .map(newVersion -> taskMapper.toResponseDto(taskId, userId, newVersion, dto))
+                .as(transactionalOperator::transactional)
+                .doOnNext(updated -> eventPublisher.publishEvent(TaskChangedEvent.updated(updated)));
+    }
+
+    @Override
+    public Mono<Void> delete(Long userId, Long taskId) {
+        return taskRepo.softDeleteByIdAndUserId(taskId, userId)
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("Task", taskId)))
+                .then(Mono.defer(() -> userRepo.adjustTaskCount(userId, -1)))
+                .as(transactionalOperator::transactional)
+                .then(Mono.fromRunnable(() -> eventPublisher.publishEvent(TaskChangedEvent.deleted(userId, taskId))));
+    }
+
+    @Override
+    public Mono<TaskResponseDto> findTaskByUserId(Long userId, Long taskId) {
+        return taskRepo.findByIdAndUserId(taskId, userId)
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("Task", taskId)));
+    }
+
+    @Override
+    public Mono<Long> findTaskVersionByUserId(Long userId, Long taskId) {
+        return taskRepo.findVersionByIdAndUserId(taskId, userId)
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("Task", taskId)));
+    }
+
+    @Override
+    public Flux<TaskResponseDto> findAllByUserId(Long userId) {
+        return taskRepo.streamByUserId(userId, taskProperties.getExport().getFlushEvery());
+    }
+
+    @Override
+    public Mono<TaskPageDto> findPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal) {
+        return Mono.defer(() -> {
+            TaskProperties.Pagination pagination = taskProperties.getPagination();
+            int pageSize = TaskServiceImpl.resolveLimit(limit, pagination.getDefaultLimit(), pagination.getMaxLimit());
+            Long afterId = cursorCodec.decode(cursor);
+
+            Mono<Optional<Long>> totalEstimate = includeTotal
+                    ? userRepo.findTaskCountById(userId).defaultIfEmpty(0L).map(Optional::of)
+                    : Mono.just(Optional.empty());
+            // Fetch one extra row to know whether another page follows without a count query
+            return taskRepo.findPageByUserId(userId, afterId == null ? 0L : afterId, pageSize + 1)
+                    .collectList()
+                    .zipWith(totalEstimate, (rows, total) -> toPage(rows, pageSize, total.orElse(null)));
+        });
+    }
+
+    @Override
+    public Flux<TaskResponseDto> exportByUserId(Long userId) {
+        return taskRepo.streamByUserId(userId, taskProperties.getExport().getFlushEvery());
+    }
+
+    @Override
+    public Mono<TaskCountDto> countByUserId(Long userId) {
+        return userRepo.findTaskCountById(userId)
+                .map(count -> new TaskCountDto(userId, count))
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("User", userId)));
+    }
+
+    private Mono<Long> missingOrModified(Long userId, Long taskId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.error(new RecordNotFoundException("Task", taskId));
+        }
+        return taskRepo.findVersionByIdAndUserId(taskId, userId)
+                .flatMap(current -> Mono.<Long>error(new PreconditionFailedException("Task", taskId)))
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("Task", taskId)));
+    }
+
+    private TaskPageDto toPage(List<TaskResponseDto> rows, int pageSize, Long totalEstimate) {
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskResponseDto> items = hasNext ? rows.subList(0, pageSize) : rows;
+        return TaskPageDto.builder()
+                .items(items)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorCodec.encode(items.getLast().getId()) : null)
+                .limit(pageSize)
+                .totalEstimate(totalEstimate)
+                .build();
+    }
+
+}
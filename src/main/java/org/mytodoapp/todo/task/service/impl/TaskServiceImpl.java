@@ -1,76 +1,491 @@
 package org.mytodoapp.todo.task.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.mytodoapp.todo.shared.config.CacheConfig;
+import org.mytodoapp.todo.shared.config.MetricsConfig;
+import org.mytodoapp.todo.shared.datasource.ReplicaRead;
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
 import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.shared.util.CursorCodec;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskBatchOperationDto;
+import org.mytodoapp.todo.task.dto.TaskBatchOperationType;
+import org.mytodoapp.todo.task.dto.TaskBatchRequestDto;
+import org.mytodoapp.todo.task.dto.TaskBatchResponseDto;
+import org.mytodoapp.todo.task.dto.TaskBatchResultDto;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
 import org.mytodoapp.todo.task.dto.TaskRequestDto;
 import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.dto.TaskVersionUpdateDto;
 import org.mytodoapp.todo.task.entity.Task;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.task.index.TaskSearchIndex;
 import org.mytodoapp.todo.task.mapper.TaskMapper;
 import org.mytodoapp.todo.task.repo.TaskRepo;
 import org.mytodoapp.todo.task.service.TaskService;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.mytodoapp.todo.task.writebehind.TaskWriteBuffer;
 import org.mytodoapp.todo.user.entity.User;
 import org.mytodoapp.todo.user.repo.UserRepo;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
 @AllArgsConstructor
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    // Read caches are keyed by the user's change version, taken before the query runs; a committed
+    // mutation bumps the version, so stale entries are simply never looked up again
+    private static final String VERSIONED_KEY = "#userId, @taskVersionTracker.currentVersion(#userId)";
+    // Results that overlay buffered writes are not cached: the flush does not bump the version again
+    private static final String NO_BUFFERED_WRITES = "!@taskWriteBuffer.hasPending(#userId)";
+
     private final TaskRepo taskRepo;
     private final UserRepo userRepo;
     private final TaskMapper taskMapper;
+    private final TaskProperties taskProperties;
+    private final CursorCodec cursorCodec;
+    private final ObjectMapper objectMapper;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TaskWriteBuffer taskWriteBuffer;
+    private final TaskShards taskShards;
+    private final TaskShardDirectory taskShardDirectory;
 
     @Override
+    @Transactional
     public TaskResponseDto add(Long userId, TaskRequestDto dto) {
         User user = findUserByIdOrThrow(userId);
         Task task = taskMapper.toEntity(dto);
         task.setUser(user);
         taskRepo.save(task);
-        return taskMapper.toResponseDto(task);
+        userRepo.adjustTaskCount(userId, 1);
+        TaskResponseDto created = taskMapper.toResponseDto(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(created));
+        return created;
     }
 
     @Override
-    public TaskResponseDto update(Long userId, Long taskId, TaskRequestDto dto) {
-        findUserByIdOrThrow(userId);
-        Task existingTask = taskRepo.findByIdAndUserId(taskId, userId)
+    @Transactional
+    public TaskResponseDto update(Long userId, Long taskId, TaskRequestDto dto, Long expectedVersion) {
+        if (expectedVersion == null) {
+            Optional<TaskResponseDto> buffered = taskWriteBuffer.buffer(userId, taskId, dto);
+            if (buffered.isPresent()) {
+                eventPublisher.publishEvent(TaskChangedEvent.updated(buffered.get()));
+                return buffered.get();
+            }
+        }
+        // A buffered update of this task lands first, so this one is applied and versioned on top of it
+        taskWriteBuffer.flush(userId, taskId);
+        Long version = expectedVersion == null
+                ? taskRepo.updateByIdAndUserId(taskId, userId, dto.getTitle(), dto.getDescription())
+                        .orElseThrow(() -> new RecordNotFoundException("Task", taskId))
+                : updateIfVersionMatches(userId, taskId, expectedVersion, dto);
+        TaskResponseDto updatedTask = taskMapper.toResponseDto(taskId, userId, version, dto);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(updatedTask));
+        return updatedTask;
+    }
+
+    @Override
+    @Transactional
+    public TaskResponseDto patch(Long userId, Long taskId, JsonNode mergePatch, Long expectedVersion) {
+        if (mergePatch == null || !mergePatch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        taskWriteBuffer.flush(userId, taskId);
+        Task task = taskRepo.findByIdAndUserId(taskId, userId)
                 .orElseThrow(() -> new RecordNotFoundException("Task", taskId));
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task", taskId);
+        }
 
-        taskMapper.updateTaskFromDto(dto, existingTask);
-        taskRepo.save(existingTask);
+        Long previousVersion = task.getVersion();
+        taskMapper.updateTaskFromDto(applyMergePatch(task, mergePatch), task);
+        // Dirty checking writes only the columns that changed (@DynamicUpdate) and bumps the version
+        taskRepo.flush();
 
-        return taskMapper.toResponseDto(existingTask);
+        TaskResponseDto patched = taskMapper.toResponseDto(task);
+        if (!Objects.equals(previousVersion, task.getVersion())) {
+            eventPublisher.publishEvent(TaskChangedEvent.updated(patched));
+        }
+        return patched;
     }
 
     @Override
+    @Transactional
     public void delete(Long userId, Long taskId) {
-        findUserByIdOrThrow(userId);
-        Task task = taskRepo.findByIdAndUserId(taskId, userId).orElseThrow(() -> new RecordNotFoundException("Task", taskId));
-        taskRepo.delete(task);
+        taskWriteBuffer.discard(userId, taskId);
+        if (taskRepo.softDeleteByIdAndUserId(taskId, userId, Instant.now()) == 0) {
+            throw new RecordNotFoundException("Task", taskId);
+        }
+        userRepo.adjustTaskCount(userId, -1);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(userId, taskId));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    @Cacheable(cacheNames = CacheConfig.TASK, key = "{" + VERSIONED_KEY + ", #taskId}", condition = NO_BUFFERED_WRITES)
     public TaskResponseDto findTaskByUserId(Long userId, Long taskId) {
-        findUserByIdOrThrow(userId);
-        Task task = taskRepo.findByIdAndUserId(taskId, userId)
+        return taskWriteBuffer.find(userId, taskId)
+                .or(() -> taskRepo.findDtoByIdAndUserId(taskId, userId))
+                .orElseThrow(() -> new RecordNotFoundException("Task", taskId));
+    }
+
+    // Lets a conditional GET be answered from the version column alone, before the row is read and mapped
+    @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    public Long findTaskVersionByUserId(Long userId, Long taskId) {
+        return taskWriteBuffer.find(userId, taskId)
+                .map(TaskResponseDto::getVersion)
+                .or(() -> taskRepo.findVersionByIdAndUserId(taskId, userId))
                 .orElseThrow(() -> new RecordNotFoundException("Task", taskId));
-        return taskMapper.toResponseDto(task);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    @Cacheable(cacheNames = CacheConfig.TASKS, key = "{" + VERSIONED_KEY + "}", condition = NO_BUFFERED_WRITES)
     public List<TaskResponseDto> findAllByUserId(Long userId) {
-        return taskRepo.findTasksByUserId(userId)
-                .stream()
-                .map(taskMapper::toResponseDto)
+        return overlayBufferedWrites(userId, taskRepo.findDtosByUserId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    @Cacheable(cacheNames = CacheConfig.TASK_PAGES, key = "{" + VERSIONED_KEY + ", #cursor, #limit, #includeTotal}",
+            condition = NO_BUFFERED_WRITES)
+    public TaskPageDto findPageByUserId(Long userId, String cursor, Integer limit, boolean includeTotal) {
+        int pageSize = resolvePageSize(limit);
+        Long afterId = cursorCodec.decode(cursor);
+
+        // Fetch one extra row to know whether another page follows without a count query
+        List<TaskResponseDto> rows = taskRepo.findDtoPageByUserId(
+                userId, afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskResponseDto> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return TaskPageDto.builder()
+                .items(overlayBufferedWrites(userId, items))
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorCodec.encode(items.getLast().getId()) : null)
+                .limit(pageSize)
+                .totalEstimate(includeTotal ? userRepo.findTaskCountById(userId).orElse(0L) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    public void exportByUserId(Long userId, OutputStream out) throws IOException {
+        int flushEvery = taskProperties.getExport().getFlushEvery();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+
+        // Rows are read through a server-side cursor and written one by one, so heap use does not grow with the task count
+        try (Stream<TaskResponseDto> tasks = taskRepo.streamByUserId(userId)) {
+            Iterator<TaskResponseDto> iterator = tasks.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
+                if (++written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
+    }
+
+    @Override
+    @Transactional
+    public TaskBatchResponseDto applyBatch(Long userId, TaskBatchRequestDto dto) {
+        List<TaskBatchOperationDto> operations = dto.getOperations();
+        int maxOperations = taskProperties.getBatch().getMaxOperations();
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxOperations + " operations");
+        }
+
+        User user = findUserByIdOrThrow(userId);
+        Map<Long, Task> targets = loadBatchTargets(userId, operations);
+
+        List<BatchOutcome> outcomes = new ArrayList<>(operations.size());
+        List<Task> toCreate = new ArrayList<>();
+        List<Task> toDelete = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            outcomes.add(applyOperation(i, operations.get(i), user, targets, toCreate, toDelete));
+        }
+
+        // Sequence-generated ids let Hibernate group these into JDBC batches at flush time;
+        // updated tasks are already managed and get flushed by dirty checking
+        taskRepo.saveAll(toCreate);
+        taskRepo.deleteAll(toDelete);
+        // Flushing here assigns the bumped versions before they are mapped into the results
+        taskRepo.flush();
+        int countDelta = toCreate.size() - toDelete.size();
+        if (countDelta != 0) {
+            userRepo.adjustTaskCount(userId, countDelta);
+        }
+
+        List<TaskBatchResultDto> results = outcomes.stream()
+                .map(this::toBatchResult)
                 .toList();
+        results.stream()
+                .filter(r -> r.getError() == null)
+                .forEach(r -> eventPublisher.publishEvent(toChangedEvent(userId, r)));
+        int failed = (int) results.stream().filter(r -> r.getError() != null).count();
+
+        return TaskBatchResponseDto.builder()
+                .results(results)
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .build();
     }
 
-    private User findUserByIdOrThrow(Long userId) {
-        return userRepo.findById(userId)
+    @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#userId")
+    public TaskCountDto countByUserId(Long userId) {
+        return userRepo.findTaskCountById(userId)
+                .map(count -> new TaskCountDto(userId, count))
                 .orElseThrow(() -> new RecordNotFoundException("User", userId));
     }
 
+    /**
+     * With task sharding, every shard is queried in parallel; the live users and their order come from shard 0
+     * and each counter from the shard the user is placed on.
+     */
+    @Override
+    @ReplicaRead
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<TaskCountDto> findAllCounts() {
+        List<List<TaskCountDto>> perShard = taskShards.fanOut(shard -> userRepo.findTaskCounts());
+        if (perShard.size() == 1) {
+            return perShard.getFirst();
+        }
+        Map<Long, Integer> placements = taskShardDirectory.assignments();
+        List<Map<Long, Long>> counters = perShard.stream()
+                .map(counts -> counts.stream().collect(Collectors.toMap(TaskCountDto::getUserId, TaskCountDto::getTaskCount)))
+                .toList();
+        return perShard.getFirst().stream()
+                .map(home -> new TaskCountDto(home.getUserId(), counters
+                        .get(placements.getOrDefault(home.getUserId(), TaskShards.HOME))
+                        .getOrDefault(home.getUserId(), 0L)))
+                .toList();
+    }
+
+    private Map<Long, Task> loadBatchTargets(Long userId, List<TaskBatchOperationDto> operations) {
+        List<Long> taskIds = operations.stream()
+                .filter(op -> op.getType() != TaskBatchOperationType.CREATE)
+                .map(TaskBatchOperationDto::getTaskId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (taskIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        taskIds.forEach(taskId -> taskWriteBuffer.flush(userId, taskId));
+
+        return taskRepo.findByUserIdAndIdIn(userId, taskIds)
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private BatchOutcome applyOperation(
+            int index,
+            TaskBatchOperationDto op,
+            User user,
+            Map<Long, Task> targets,
+            List<Task> toCreate,
+            List<Task> toDelete
+    ) {
+        TaskBatchOperationType type = op.getType();
+
+        if (type == TaskBatchOperationType.CREATE) {
+            if (isBlank(op.getTitle()) || isBlank(op.getDescription())) {
+                return BatchOutcome.failed(index, op, HttpStatus.BAD_REQUEST, "Task title and description are required");
+            }
+            Task task = Task.builder()
+                    .title(op.getTitle())
+                    .description(op.getDescription())
+                    .user(user)
+                    .build();
+            toCreate.add(task);
+            return BatchOutcome.succeeded(index, op, HttpStatus.CREATED, task);
+        }
+
+        if (op.getTaskId() == null) {
+            return BatchOutcome.failed(index, op, HttpStatus.BAD_REQUEST, "Task id is required");
+        }
+
+        Task task = targets.get(op.getTaskId());
+        if (task == null) {
+            return BatchOutcome.failed(index, op, HttpStatus.NOT_FOUND, "Task with id " + op.getTaskId() + " not found.");
+        }
+
+        if (type == TaskBatchOperationType.UPDATE) {
+            if (isBlank(op.getTitle()) || isBlank(op.getDescription())) {
+                return BatchOutcome.failed(index, op, HttpStatus.BAD_REQUEST, "Task title and description are required");
+            }
+            task.setTitle(op.getTitle());
+            task.setDescription(op.getDescription());
+            return BatchOutcome.succeeded(index, op, HttpStatus.OK, task);
+        }
+
+        targets.remove(op.getTaskId());
+        toDelete.add(task);
+        return BatchOutcome.succeeded(index, op, HttpStatus.NO_CONTENT, null);
+    }
+
+    private Long updateIfVersionMatches(Long userId, Long taskId, Long expectedVersion, TaskRequestDto dto) {
+        TaskVersionUpdateDto result = taskRepo
+                .updateByIdAndUserIdAndVersion(taskId, userId, expectedVersion, dto.getTitle(), dto.getDescription())
+                .orElseThrow(() -> new RecordNotFoundException("Task", taskId));
+        if (!result.getUpdated()) {
+            throw new PreconditionFailedException("Task", taskId);
+        }
+        return result.getVersion();
+    }
+
+    private List<TaskResponseDto> overlayBufferedWrites(Long userId, List<TaskResponseDto> tasks) {
+        return taskWriteBuffer.hasPending(userId) ? taskWriteBuffer.overlay(userId, tasks) : tasks;
+    }
+
+    private TaskBatchResultDto toBatchResult(BatchOutcome outcome) {
+        return TaskBatchResultDto.builder()
+                .index(outcome.index())
+                .type(outcome.type())
+                .taskId(outcome.task() != null ? outcome.task().getId() : outcome.taskId())
+                .status(outcome.status().value())
+                .error(outcome.error())
+                .task(outcome.task() != null ? taskMapper.toResponseDto(outcome.task()) : null)
+                .build();
+    }
+
+    private TaskChangedEvent toChangedEvent(Long userId, TaskBatchResultDto result) {
+        return switch (result.getType()) {
+            case CREATE -> TaskChangedEvent.created(result.getTask());
+            case UPDATE -> TaskChangedEvent.updated(result.getTask());
+            case DELETE -> TaskChangedEvent.deleted(userId, result.getTaskId());
+        };
+    }
+
+    // RFC 7396 over the task's writable fields: absent members are kept, null removes (and so fails validation)
+    private TaskRequestDto applyMergePatch(Task task, JsonNode mergePatch) {
+        TaskRequestDto target = TaskRequestDto.builder()
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .build();
+        try {
+            objectMapper.readerForUpdating(target)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(mergePatch);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage());
+        }
+
+        Set<ConstraintViolation<TaskRequestDto>> violations = validator.validate(target);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return target;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record BatchOutcome(
+            int index,
+            TaskBatchOperationType type,
+            Long taskId,
+            HttpStatus status,
+            Task task,
+            String error
+    ) {
+        static BatchOutcome succeeded(int index, TaskBatchOperationDto op, HttpStatus status, Task task) {
+            return new BatchOutcome(index, op.getType(), op.getTaskId(), status, task, null);
+        }
+
+        static BatchOutcome failed(int index, TaskBatchOperationDto op, HttpStatus status, String error) {
+            return new BatchOutcome(index, op.getType(), op.getTaskId(), status, null, error);
+        }
+    }
+
+    @Override
+    public List<TaskResponseDto> search(Long userId, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        TaskProperties.Search search = taskProperties.getSearch();
+        int resultLimit = resolveLimit(limit, search.getDefaultLimit(), search.getMaxLimit());
+        if (search.isLazyLoad()) {
+            taskSearchIndex.load(userId, () -> overlayBufferedWrites(userId, taskRepo.findDtosByUserId(userId)));
+        }
+        return taskSearchIndex.search(userId, query, resultLimit);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        TaskProperties.Pagination pagination = taskProperties.getPagination();
+        return resolveLimit(limit, pagination.getDefaultLimit(), pagination.getMaxLimit());
+    }
+
+    static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    // Tasks only need a reference to their owner; loading the entity would put a task shard's placeholder
+    // owner row into the users cache, where logins would find it
+    private User findUserByIdOrThrow(Long userId) {
+        if (!userRepo.existsLiveById(userId)) {
+            throw new RecordNotFoundException("User", userId);
+        }
+        return userRepo.getReferenceById(userId);
+    }
+
 }
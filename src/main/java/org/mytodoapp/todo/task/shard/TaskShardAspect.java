@@ -0,0 +1,41 @@
+package org.mytodoapp.todo.task.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every {@link org.mytodoapp.todo.task.service.TaskService} call that takes a user id on that user's shard.
+ * Ordered first, so the shard is bound before the transaction advice takes its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TaskShardAspect {
+
+    private final TaskShards taskShards;
+    private final TaskShardDirectory directory;
+
+    public TaskShardAspect(TaskShards taskShards, TaskShardDirectory directory) {
+        this.taskShards = taskShards;
+        this.directory = directory;
+    }
+
+    // The user id is read from the arguments rather than bound: binding needs the invocation exposed by an
+    // interceptor that itself runs after the highest precedence
+    @Around("execution(* org.mytodoapp.todo.task.service.TaskService.*(Long, ..))")
+    public Object routeToShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        Long userId = (Long) joinPoint.getArgs()[0];
+        if (!taskShards.isSharded() || userId == null) {
+            return joinPoint.proceed();
+        }
+        try (TaskShards.Hold hold = taskShards.holdPlacement(userId);
+             TaskShards.Binding binding = taskShards.bind(directory.lookupOrAssign(userId))) {
+            return joinPoint.proceed();
+        }
+    }
+
+}
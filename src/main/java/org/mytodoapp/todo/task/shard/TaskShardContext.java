@@ -0,0 +1,29 @@
+package org.mytodoapp.todo.task.shard;
+
+/**
+ * The shard bound to the current thread; {@code null} means shard 0.
+ */
+final class TaskShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private TaskShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    static void bind(int shard) {
+        CURRENT.set(shard);
+    }
+
+}
@@ -0,0 +1,204 @@
+package org.mytodoapp.todo.task.shard;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.mytodoapp.todo.shared.config.CacheConfig;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Where each user's tasks live. Placements are kept in task_shard_assignments on shard 0, so a move can override
+ * the hash; a user is placed on first use, and the users that predate sharding stay on shard 0 until moved.
+ * <p>
+ * Tasks reference their owner, so every other shard holding a user's tasks also gets a placeholder row for them
+ * in its users table. It carries the user's task counter there and nothing else: logins never read it.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class TaskShardDirectory {
+
+    // Keeps each shard's task ids apart, so a move can copy rows without renumbering them
+    private static final int ID_RANGE_BITS = 48;
+
+    private final TaskShards taskShards;
+    private final ObjectProvider<Flyway> flyway;
+    private final List<JdbcTemplate> jdbcTemplates = new ArrayList<>();
+    private final Cache placements;
+
+    public TaskShardDirectory(TaskShards taskShards, ObjectProvider<Flyway> flyway, CacheManager cacheManager) {
+        this.taskShards = taskShards;
+        this.flyway = flyway;
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            jdbcTemplates.add(new JdbcTemplate(taskShards.dataSource(shard)));
+        }
+        this.placements = cacheManager.getCache(CacheConfig.TASK_SHARDS);
+    }
+
+    /**
+     * Brings the other shards to the schema of shard 0, gives every shard its own task id range and places
+     * the users not placed yet (those created while sharding was off) on shard 0, where their tasks are.
+     */
+    @PostConstruct
+    void prepare() {
+        if (!taskShards.isSharded()) {
+            return;
+        }
+        Flyway primary = flyway.getIfAvailable();
+        for (int shard = 0; shard < taskShards.count(); shard++) {
+            if (primary != null && shard != TaskShards.HOME) {
+                Flyway.configure()
+                        .configuration(primary.getConfiguration())
+                        .dataSource(taskShards.dataSource(shard))
+                        .load()
+                        .migrate();
+            }
+            long first = (long) shard << ID_RANGE_BITS;
+            long last = ((long) (shard + 1) << ID_RANGE_BITS) - 1;
+            JdbcTemplate jdbc = jdbcTemplates.get(shard);
+            if (shard != TaskShards.HOME) {
+                jdbc.queryForList("select setval('tasks_id_seq', ?) where (select last_value from tasks_id_seq) < ?",
+                        first, first);
+            }
+            jdbc.execute("alter sequence tasks_id_seq maxvalue " + last);
+        }
+        int adopted = home().update("""
+                insert into task_shard_assignments (user_id, shard)
+                select id, 0 from users
+                on conflict (user_id) do nothing
+                """);
+        if (adopted > 0) {
+            log.info("Placed {} existing users on task shard 0", adopted);
+        }
+    }
+
+    /**
+     * The user's shard, placing them by hash on first use. Unknown and deleted users are not placed; their
+     * calls go to shard 0, which answers them as it did before sharding.
+     */
+    public int lookupOrAssign(Long userId) {
+        if (!taskShards.isSharded()) {
+            return TaskShards.HOME;
+        }
+        Integer cached = placements.get(userId, Integer.class);
+        if (cached != null) {
+            return cached;
+        }
+        Integer shard = find(userId);
+        if (shard == null) {
+            if (!isLiveUser(userId)) {
+                return TaskShards.HOME;
+            }
+            int candidate = taskShards.shardFor(userId);
+            // The owner row goes first: a placement must never point at a shard that cannot take the user's tasks
+            provisionOwner(candidate, userId);
+            home().update("insert into task_shard_assignments (user_id, shard) values (?, ?) on conflict (user_id) do nothing",
+                    userId, candidate);
+            // Another instance or thread may have placed the user first
+            shard = find(userId);
+        }
+        placements.put(userId, shard);
+        return shard;
+    }
+
+    /**
+     * The user's shard without placing them; shard 0 for users not placed yet.
+     */
+    public int shardOf(Long userId) {
+        return findPlacement(userId).orElse(TaskShards.HOME);
+    }
+
+    /**
+     * The shard the user has been placed on, if any. Without sharding every user is on shard 0.
+     */
+    public Optional<Integer> findPlacement(Long userId) {
+        if (!taskShards.isSharded()) {
+            return Optional.of(TaskShards.HOME);
+        }
+        Integer cached = placements.get(userId, Integer.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return Optional.ofNullable(find(userId));
+    }
+
+    public Map<Long, Integer> assignments() {
+        Map<Long, Integer> assignments = new HashMap<>();
+        home().query("select user_id, shard from task_shard_assignments",
+                rs -> { assignments.put(rs.getLong(1), rs.getInt(2)); });
+        return assignments;
+    }
+
+    public boolean isLiveUser(Long userId) {
+        return Boolean.TRUE.equals(home().queryForObject(
+                "select exists (select 1 from users where id = ? and deleted_at is null)", Boolean.class, userId));
+    }
+
+    public void assign(Long userId, int shard) {
+        home().update("""
+                insert into task_shard_assignments (user_id, shard) values (?, ?)
+                on conflict (user_id) do update set shard = excluded.shard
+                """, userId, shard);
+        placements.put(userId, shard);
+    }
+
+    public void forget(Long userId) {
+        if (!taskShards.isSharded()) {
+            return;
+        }
+        home().update("delete from task_shard_assignments where user_id = ?", userId);
+        placements.evict(userId);
+    }
+
+    public void provisionOwner(int shard, Long userId) {
+        if (shard == TaskShards.HOME) {
+            return;
+        }
+        jdbcTemplates.get(shard).update("""
+                insert into users (id, name, email, password, role, enabled, account_non_expired,
+                                   account_non_locked, credentials_non_expired, task_count)
+                values (?, ?, ?, '', 'USER', false, true, true, true, 0)
+                on conflict (id) do nothing
+                """, userId, "owner-" + userId, userId + "@owner.invalid");
+    }
+
+    public void dropOwner(int shard, Long userId) {
+        if (shard != TaskShards.HOME) {
+            jdbcTemplates.get(shard).update("delete from users where id = ?", userId);
+        }
+    }
+
+    // Keeps the placeholder in step with the user, so the shard stops serving their counter
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        int shard = shardOf(event.userId());
+        if (shard != TaskShards.HOME) {
+            jdbcTemplates.get(shard).update("update users set deleted_at = current_timestamp where id = ? and deleted_at is null",
+                    event.userId());
+        }
+    }
+
+    private Integer find(Long userId) {
+        List<Integer> shards = home().queryForList("select shard from task_shard_assignments where user_id = ?",
+                Integer.class, userId);
+        return shards.isEmpty() ? null : shards.getFirst();
+    }
+
+    private JdbcTemplate home() {
+        return jdbcTemplates.get(TaskShards.HOME);
+    }
+
+}
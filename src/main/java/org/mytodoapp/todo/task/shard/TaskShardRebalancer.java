@@ -0,0 +1,221 @@
+package org.mytodoapp.todo.task.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.mytodoapp.todo.shared.exception.DuplicateResourceException;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskShardDto;
+import org.mytodoapp.todo.task.dto.TaskShardMoveDto;
+import org.mytodoapp.todo.task.writebehind.TaskWriteBuffer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves a user's tasks to another shard while the application keeps serving them.
+ * <p>
+ * The rows are copied in chunks without blocking the user. Their task calls are then held for the final step
+ * only: buffered updates are flushed, whatever changed during the copy is copied again, the counter follows
+ * and the placement switches. The source rows are removed once nothing reads them any more. Every step is
+ * idempotent, so a move that failed half way is simply started again.
+ * <p>
+ * Moves of different users run side by side; a second move of a user already being moved is refused.
+ * The hold only covers this instance: run moves while a single instance serves the task API.
+ */
+@Slf4j
+@Component
+@PreAuthorize("hasRole('ADMIN')")
+public class TaskShardRebalancer {
+
+    private static final String SELECT_ROWS =
+            "select id, title, description, user_id, version, deleted_at from tasks ";
+    private static final String UPSERT_ROW = """
+            insert into tasks (id, title, description, user_id, version, deleted_at) values (?, ?, ?, ?, ?, ?)
+            on conflict (id) do update set title = excluded.title, description = excluded.description,
+                version = excluded.version, deleted_at = excluded.deleted_at
+            """;
+
+    private final TaskShards taskShards;
+    private final TaskShardDirectory directory;
+    private final TaskWriteBuffer taskWriteBuffer;
+    private final TaskProperties.Sharding properties;
+    private final Set<Long> moving = ConcurrentHashMap.newKeySet();
+
+    public TaskShardRebalancer(TaskShards taskShards, TaskShardDirectory directory, TaskWriteBuffer taskWriteBuffer,
+                               TaskProperties taskProperties) {
+        this.taskShards = taskShards;
+        this.directory = directory;
+        this.taskWriteBuffer = taskWriteBuffer;
+        this.properties = taskProperties.getSharding();
+    }
+
+    public List<TaskShardDto> summary() {
+        long[] users = new long[taskShards.count()];
+        long[] toMove = new long[taskShards.count()];
+        directory.assignments().forEach((userId, shard) -> {
+            users[shard]++;
+            if (taskShards.shardFor(userId) != shard) {
+                toMove[shard]++;
+            }
+        });
+        List<TaskShardDto> shards = new ArrayList<>();
+        for (int shard = 0; shard < users.length; shard++) {
+            shards.add(new TaskShardDto(shard, users[shard], toMove[shard]));
+        }
+        return shards;
+    }
+
+    /**
+     * Moves up to {@code limit} users whose placement differs from their hash, e.g. after adding a shard.
+     */
+    public List<TaskShardMoveDto> rebalance(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        List<TaskShardMoveDto> moves = new ArrayList<>();
+        for (Map.Entry<Long, Integer> placement : new TreeMap<>(directory.assignments()).entrySet()) {
+            if (moves.size() == limit) {
+                break;
+            }
+            Long userId = placement.getKey();
+            int target = taskShards.shardFor(userId);
+            if (target != placement.getValue() && directory.isLiveUser(userId)) {
+                moves.add(move(userId, target));
+            }
+        }
+        return moves;
+    }
+
+    public TaskShardMoveDto move(Long userId, int target) {
+        if (target < 0 || target >= taskShards.count()) {
+            throw new IllegalArgumentException("Shard " + target + " does not exist");
+        }
+        if (!moving.add(userId)) {
+            throw new DuplicateResourceException("The tasks of user " + userId + " are already being moved");
+        }
+        try {
+            return move(userId, findSource(userId), target);
+        } finally {
+            moving.remove(userId);
+        }
+    }
+
+    // Only reads the placement: a move must not place a user, nor provision their owner rows, as a side effect
+    private int findSource(Long userId) {
+        if (!directory.isLiveUser(userId)) {
+            throw new RecordNotFoundException("User", userId);
+        }
+        return directory.findPlacement(userId)
+                .orElseThrow(() -> new RecordNotFoundException("Task shard placement of user", userId));
+    }
+
+    private TaskShardMoveDto move(Long userId, int source, int target) {
+        if (source == target) {
+            return new TaskShardMoveDto(userId, source, target, 0L, 0L);
+        }
+        long started = System.nanoTime();
+        JdbcTemplate from = new JdbcTemplate(taskShards.dataSource(source));
+        JdbcTemplate to = new JdbcTemplate(taskShards.dataSource(target));
+
+        directory.provisionOwner(target, userId);
+        long copied = copyAll(userId, from, to);
+        try (TaskShards.Hold hold = taskShards.lockPlacement(userId, properties.getMoveLockTimeout())) {
+            taskWriteBuffer.flushUser(userId);
+            copied += copyChanges(userId, from, to);
+            Long taskCount = from.queryForObject("select task_count from users where id = ?", Long.class, userId);
+            to.update("update users set task_count = ? where id = ?", taskCount, userId);
+            directory.assign(userId, target);
+            from.update("update users set task_count = 0 where id = ?", userId);
+        }
+        long removed = removeAll(userId, from);
+        directory.dropOwner(source, userId);
+
+        log.info("Moved {} tasks of user {} from shard {} to shard {} in {} ms", copied, userId, source, target,
+                (System.nanoTime() - started) / 1_000_000);
+        return new TaskShardMoveDto(userId, source, target, copied, removed);
+    }
+
+    private long copyAll(Long userId, JdbcTemplate from, JdbcTemplate to) {
+        int chunkSize = properties.getMoveChunkSize();
+        long copied = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = from.query(SELECT_ROWS + "where user_id = ? and id > ? order by id limit ?",
+                    (rs, n) -> row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5),
+                            rs.getTimestamp(6)),
+                    userId, afterId, chunkSize);
+            if (rows.isEmpty()) {
+                return copied;
+            }
+            to.batchUpdate(UPSERT_ROW, rows);
+            copied += rows.size();
+            afterId = (Long) rows.getLast()[0];
+        }
+    }
+
+    // Compares versions and deletion marks, which every write of a task changes, instead of the whole rows
+    private long copyChanges(Long userId, JdbcTemplate from, JdbcTemplate to) {
+        Map<Long, List<Object>> sourceStates = states(userId, from);
+        Map<Long, List<Object>> targetStates = states(userId, to);
+        List<Long> changed = sourceStates.entrySet().stream()
+                .filter(state -> !Objects.equals(state.getValue(), targetStates.get(state.getKey())))
+                .map(Map.Entry::getKey)
+                .toList();
+        Set<Long> gone = new HashSet<>(targetStates.keySet());
+        gone.removeAll(sourceStates.keySet());
+
+        NamedParameterJdbcTemplate source = new NamedParameterJdbcTemplate(from);
+        NamedParameterJdbcTemplate target = new NamedParameterJdbcTemplate(to);
+        int chunkSize = properties.getMoveChunkSize();
+        for (int i = 0; i < changed.size(); i += chunkSize) {
+            List<Long> ids = changed.subList(i, Math.min(i + chunkSize, changed.size()));
+            List<Object[]> rows = source.query(SELECT_ROWS + "where id in (:ids)", Map.of("ids", ids),
+                    (rs, n) -> row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4), rs.getLong(5),
+                            rs.getTimestamp(6)));
+            to.batchUpdate(UPSERT_ROW, rows);
+        }
+        if (!gone.isEmpty()) {
+            target.update("delete from tasks where id in (:ids)", Map.of("ids", gone));
+        }
+        return changed.size();
+    }
+
+    private long removeAll(Long userId, JdbcTemplate from) {
+        int chunkSize = properties.getMoveChunkSize();
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = from.update("delete from tasks where id in " +
+                    "(select id from tasks where user_id = ? order by id limit ?)", userId, chunkSize);
+            removed += deleted;
+        } while (deleted == chunkSize);
+        return removed;
+    }
+
+    private static Map<Long, List<Object>> states(Long userId, JdbcTemplate jdbc) {
+        Map<Long, List<Object>> states = new HashMap<>();
+        jdbc.query("select id, version, deleted_at from tasks where user_id = ?",
+                rs -> { states.put(rs.getLong(1), Arrays.asList(rs.getLong(2), rs.getTimestamp(3))); },
+                userId);
+        return states;
+    }
+
+    private static Object[] row(long id, String title, String description, long userId, long version,
+                                Timestamp deletedAt) {
+        return new Object[]{id, title, description, userId, version, deletedAt};
+    }
+
+}
@@ -0,0 +1,31 @@
+package org.mytodoapp.todo.task.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard bound to the thread by {@link TaskShards}, or of shard 0 when none is.
+ * A transaction keeps the connection it began with, so the shard has to be bound before it starts.
+ */
+public class TaskShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public TaskShardRoutingDataSource(List<? extends DataSource> shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.getFirst());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TaskShardContext.current();
+    }
+
+}
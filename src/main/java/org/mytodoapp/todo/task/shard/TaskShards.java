@@ -0,0 +1,204 @@
+package org.mytodoapp.todo.task.shard;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * The task shards (task.sharding) and the thread binding that routes {@link TaskShardRoutingDataSource}.
+ * Shard 0 is the primary datasource and holds the users, the shard directory and every task while sharding is off.
+ * <p>
+ * A user's placement is held for the duration of each of their task calls, so a move never switches shards
+ * under a running transaction: the rebalancer takes the user's placement exclusively before it switches.
+ */
+public class TaskShards implements AutoCloseable {
+
+    public static final int HOME = 0;
+
+    // Users share a lock per stripe; a move only ever blocks the users of one stripe, and only briefly
+    private static final int PLACEMENT_STRIPES = 256;
+
+    private final List<DataSource> dataSources;
+    private final ReadWriteLock[] placements = new ReadWriteLock[PLACEMENT_STRIPES];
+    private final ExecutorService fanOutExecutor;
+
+    public TaskShards(List<? extends DataSource> dataSources) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        for (int i = 0; i < placements.length; i++) {
+            placements[i] = new ReentrantReadWriteLock();
+        }
+        this.fanOutExecutor = dataSources.size() > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public static TaskShards single(DataSource dataSource) {
+        return new TaskShards(List.of(dataSource));
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public boolean isSharded() {
+        return dataSources.size() > 1;
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    /**
+     * The shard a user is placed on by default. Jump consistent hashing (Lamping and Veach): adding an N+1th
+     * shard only moves 1/(N+1) of the users, all of them onto the new shard.
+     */
+    public int shardFor(Long userId) {
+        return jumpHash(mix(userId), dataSources.size());
+    }
+
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    // SplitMix64 finalizer: sequential ids would otherwise walk the hash in lockstep
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Routes the thread's connections to the shard until the binding is closed. The shard has to be bound
+     * before a transaction begins; switching inside one would leave it on the connection it started with.
+     */
+    public Binding bind(int shard) {
+        if (shard < 0 || shard >= dataSources.size()) {
+            throw new IllegalArgumentException("Shard " + shard + " does not exist");
+        }
+        Integer previous = TaskShardContext.current();
+        int current = previous != null ? previous : HOME;
+        if (current != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + current + " to shard " + shard
+                    + " inside a transaction");
+        }
+        TaskShardContext.bind(shard);
+        return () -> TaskShardContext.restore(previous);
+    }
+
+    public <T> T callOn(int shard, Supplier<T> action) {
+        try (Binding binding = bind(shard)) {
+            return action.get();
+        }
+    }
+
+    public void runOn(int shard, Runnable action) {
+        try (Binding binding = bind(shard)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs the query on every shard, in parallel when there are several, and returns the results in shard order.
+     */
+    public <T> List<T> fanOut(IntFunction<T> query) {
+        if (fanOutExecutor == null) {
+            return List.of(callOn(HOME, () -> query.apply(HOME)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(dataSources.size());
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> callOn(target, () -> query.apply(target)), fanOutExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Keeps the user on their current shard until the hold is closed. Shared: any number of task calls may hold it.
+     */
+    public Hold holdPlacement(Long userId) {
+        Lock lock = placement(userId).readLock();
+        lock.lock();
+        return lock::unlock;
+    }
+
+    /**
+     * Waits for the user's running task calls to finish and keeps new ones out until the hold is closed.
+     */
+    public Hold lockPlacement(Long userId, Duration timeout) {
+        Lock lock = placement(userId).writeLock();
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Tasks of user " + userId + " stayed busy for " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the tasks of user " + userId, e);
+        }
+        return lock::unlock;
+    }
+
+    private ReadWriteLock placement(Long userId) {
+        return placements[(int) Math.floorMod(mix(userId), (long) PLACEMENT_STRIPES)];
+    }
+
+    /**
+     * Closes the pools of shards 1..N, which are not beans of their own; shard 0 belongs to the context.
+     */
+    @Override
+    public void close() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.close();
+        }
+        for (DataSource dataSource : dataSources.subList(1, dataSources.size())) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to close a task shard pool", e);
+                }
+            }
+        }
+    }
+
+    public interface Binding extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    public interface Hold extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.mytodoapp.todo.task.version;
+
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user monotonic version of the task collection, used as a strong ETag for task list reads.
+ * A single task is tagged with its own optimistic lock version instead, so the tag a client reads
+ * is the one it sends back in If-Match.
+ * Versions are bumped only after the mutating transaction commits, and readers must take the
+ * ETag before querying; a race can then only produce an extra 200, never a stale 304.
+ * The epoch changes on every start so ETags issued by a previous process never match.
+ */
+@Component
+public class TaskVersionTracker {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long currentVersion(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? 0L : version.get();
+    }
+
+    public String etag(Long userId) {
+        return "\"" + epoch + "-" + currentVersion(userId) + "\"";
+    }
+
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String taskEtag(TaskResponseDto task) {
+        return taskEtag(task.getVersion());
+    }
+
+    public String taskEtag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses an If-Match header into the task version it requires; {@code null} means unconditional.
+     * If-Match uses strong comparison, so weak or malformed tags can never match.
+     */
+    public Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must carry a single strong ETag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match must carry a single strong ETag");
+        }
+    }
+
+    public void bump(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        bump(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        bump(event.userId());
+    }
+
+}
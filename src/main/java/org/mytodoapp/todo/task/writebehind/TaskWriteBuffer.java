@@ -0,0 +1,361 @@
+package org.mytodoapp.todo.task.writebehind;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskRequestDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind for unconditional task updates.
+ * Successive updates to the same task are coalesced into one pending write, which is flushed once the task
+ * has been quiet for the debounce window (or pending for the maximum delay) and on shutdown. Pending and
+ * in-flight writes are overlaid on reads, so a client always sees its own updates.
+ */
+@Slf4j
+@Component
+public class TaskWriteBuffer {
+
+    private static final long IN_FLIGHT_WAIT_SECONDS = 5;
+    // The version advances once per update the coalesced write stands for; Task's restriction does not apply
+    // to plain JDBC, so deleted rows are excluded here
+    private static final String APPLY_COALESCED_UPDATE = """
+            update tasks set title = ?, description = ?, version = version + ?
+            where id = ? and user_id = ? and deleted_at is null
+            """;
+
+    private final TaskRepo taskRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskShards taskShards;
+    private final TaskShardDirectory taskShardDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskProperties.WriteBehind properties;
+    // Each user's map is only modified inside compute() on the outer map, which serializes merges and flushes per user
+    private final Map<Long, Map<Long, PendingWrite>> pending = new ConcurrentHashMap<>();
+    private final Map<TaskKey, InFlightWrite> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    public TaskWriteBuffer(TaskRepo taskRepo, JdbcTemplate jdbcTemplate, TaskShards taskShards,
+                           TaskShardDirectory taskShardDirectory, PlatformTransactionManager transactionManager,
+                           TaskProperties taskProperties) {
+        this.taskRepo = taskRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskShards = taskShards;
+        this.taskShardDirectory = taskShardDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = taskProperties.getWriteBehind();
+    }
+
+    /**
+     * Buffers an unconditional update and returns the task as it will be once flushed.
+     * Empty when write-behind is disabled or the buffer is full, in which case the caller writes synchronously.
+     */
+    public Optional<TaskResponseDto> buffer(Long userId, Long taskId, TaskRequestDto dto) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        while (true) {
+            boolean buffered = pendingWrite(userId, taskId) != null;
+            // The bound is checked outside the merge, so concurrent first writes may overshoot it slightly
+            if (!buffered && pendingCount.get() >= properties.getMaxPendingTasks()) {
+                return Optional.empty();
+            }
+            // Only the first update of a burst reads the database, to check ownership and learn the base version
+            Long baseVersion = buffered ? null : resolveBaseVersion(userId, taskId);
+            PendingWrite merged = merge(userId, taskId, dto, baseVersion, System.nanoTime());
+            if (merged != null) {
+                return Optional.of(merged.toResponseDto(taskId, userId));
+            }
+            // The pending write was taken for flushing in between; resolve the base version again
+        }
+    }
+
+    public Optional<TaskResponseDto> find(Long userId, Long taskId) {
+        PendingWrite write = pendingWrite(userId, taskId);
+        if (write == null) {
+            InFlightWrite flight = inFlight.get(new TaskKey(userId, taskId));
+            write = flight != null ? flight.write() : null;
+        }
+        return Optional.ofNullable(write).map(w -> w.toResponseDto(taskId, userId));
+    }
+
+    public boolean hasPending(Long userId) {
+        return pending.containsKey(userId)
+                || (!inFlight.isEmpty() && inFlight.keySet().stream().anyMatch(key -> key.userId().equals(userId)));
+    }
+
+    public List<TaskResponseDto> overlay(Long userId, List<TaskResponseDto> tasks) {
+        return tasks.stream()
+                .map(task -> find(userId, task.getId()).orElse(task))
+                .toList();
+    }
+
+    /**
+     * Writes any buffered update of the task in the caller's transaction, so a synchronous write that follows
+     * is applied on top of it. Should that transaction roll back, the update is buffered again.
+     */
+    public void flush(Long userId, Long taskId) {
+        if (pendingCount.get() == 0 && inFlight.isEmpty()) {
+            return;
+        }
+        awaitInFlight(new TaskKey(userId, taskId));
+        List<InFlightWrite> taken = take(userId, (id, write) -> id.equals(taskId));
+        if (taken.isEmpty()) {
+            return;
+        }
+        InFlightWrite flight = taken.getFirst();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(taken);
+            return;
+        }
+        apply(taken);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    requeue(flight);
+                }
+                release(flight);
+            }
+        });
+    }
+
+    /**
+     * Drops a buffered update of a task that is being deleted.
+     */
+    public void discard(Long userId, Long taskId) {
+        if (pendingCount.get() > 0) {
+            take(userId, (id, write) -> id.equals(taskId)).forEach(this::release);
+        }
+    }
+
+    /**
+     * Writes every buffered update of the user and waits for those already being flushed, so that the user's
+     * rows are final on their current shard before a move copies them.
+     */
+    public void flushUser(Long userId) {
+        write(take(userId, (id, write) -> true));
+        inFlight.keySet().stream()
+                .filter(key -> key.userId().equals(userId))
+                .toList()
+                .forEach(this::awaitInFlight);
+    }
+
+    @Scheduled(fixedDelayString = "${task.write-behind.flush-interval:100ms}")
+    public void flushDue() {
+        if (pendingCount.get() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long quietPeriod = properties.getQuietPeriod().toNanos();
+        long maxDelay = properties.getMaxDelay().toNanos();
+        write(takeAll((id, write) -> now - write.lastUpdatedAt() >= quietPeriod || now - write.firstUpdatedAt() >= maxDelay));
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        write(takeAll((id, write) -> true));
+    }
+
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    private PendingWrite pendingWrite(Long userId, Long taskId) {
+        Map<Long, PendingWrite> writes = pending.get(userId);
+        return writes != null ? writes.get(taskId) : null;
+    }
+
+    private Long resolveBaseVersion(Long userId, Long taskId) {
+        // A write still being flushed has not committed yet; the next one builds on its outcome
+        InFlightWrite flight = inFlight.get(new TaskKey(userId, taskId));
+        if (flight != null) {
+            return flight.write().version();
+        }
+        return taskRepo.findVersionByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> new RecordNotFoundException("Task", taskId));
+    }
+
+    private PendingWrite merge(Long userId, Long taskId, TaskRequestDto dto, Long baseVersion, long now) {
+        PendingWrite[] merged = new PendingWrite[1];
+        pending.compute(userId, (id, writes) -> {
+            Map<Long, PendingWrite> userWrites = writes != null ? writes : new ConcurrentHashMap<>();
+            PendingWrite previous = userWrites.get(taskId);
+            if (previous != null) {
+                merged[0] = previous.merge(dto, now);
+            } else if (baseVersion != null) {
+                merged[0] = PendingWrite.first(baseVersion, dto, now);
+                pendingCount.incrementAndGet();
+            }
+            if (merged[0] != null) {
+                userWrites.put(taskId, merged[0]);
+            }
+            return userWrites.isEmpty() ? null : userWrites;
+        });
+        return merged[0];
+    }
+
+    private List<InFlightWrite> takeAll(BiPredicate<Long, PendingWrite> due) {
+        List<InFlightWrite> taken = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            taken.addAll(take(userId, due));
+        }
+        return taken;
+    }
+
+    private List<InFlightWrite> take(Long userId, BiPredicate<Long, PendingWrite> due) {
+        List<InFlightWrite> taken = new ArrayList<>();
+        pending.computeIfPresent(userId, (id, writes) -> {
+            writes.entrySet().removeIf(entry -> {
+                if (!due.test(entry.getKey(), entry.getValue())) {
+                    return false;
+                }
+                // Registered before it leaves the pending map, so readers never fall through to the old row
+                InFlightWrite flight = new InFlightWrite(new TaskKey(userId, entry.getKey()), entry.getValue(), new CountDownLatch(1));
+                inFlight.put(flight.key(), flight);
+                taken.add(flight);
+                return true;
+            });
+            return writes.isEmpty() ? null : writes;
+        });
+        pendingCount.addAndGet(-taken.size());
+        return taken;
+    }
+
+    private void write(List<InFlightWrite> flights) {
+        if (flights.isEmpty()) {
+            return;
+        }
+        flights.stream()
+                .collect(Collectors.groupingBy(flight -> taskShardDirectory.shardOf(flight.key().userId())))
+                .forEach((shard, shardFlights) -> taskShards.runOn(shard, () -> writeOnShard(shardFlights)));
+    }
+
+    private void writeOnShard(List<InFlightWrite> flights) {
+        // One transaction and one JDBC batch per shard for the whole flush, so a burst of coalesced edits
+        // costs a single round trip and a single commit
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(flights));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} buffered task updates, retrying on the next flush", flights.size(), e);
+            flights.forEach(this::requeue);
+        } finally {
+            flights.forEach(this::release);
+        }
+    }
+
+    // Runs on the connection of the surrounding transaction, which the JPA transaction manager exposes to JDBC
+    private void apply(List<InFlightWrite> flights) {
+        int[][] counts = jdbcTemplate.batchUpdate(APPLY_COALESCED_UPDATE, flights, flights.size(), (statement, flight) -> {
+            PendingWrite write = flight.write();
+            statement.setString(1, write.title());
+            statement.setString(2, write.description());
+            statement.setLong(3, write.updates());
+            statement.setLong(4, flight.key().taskId());
+            statement.setLong(5, flight.key().userId());
+        });
+        for (int i = 0; i < flights.size(); i++) {
+            if (counts[0][i] == 0) {
+                log.debug("Dropped buffered update of task {}: it was deleted while the update was pending",
+                        flights.get(i).key().taskId());
+            }
+        }
+    }
+
+    private void requeue(InFlightWrite flight) {
+        TaskKey key = flight.key();
+        pending.compute(key.userId(), (id, writes) -> {
+            Map<Long, PendingWrite> userWrites = writes != null ? writes : new ConcurrentHashMap<>();
+            PendingWrite newer = userWrites.get(key.taskId());
+            if (newer == null) {
+                pendingCount.incrementAndGet();
+            }
+            userWrites.put(key.taskId(), newer != null ? flight.write().followedBy(newer) : flight.write());
+            return userWrites;
+        });
+    }
+
+    private void release(InFlightWrite flight) {
+        inFlight.remove(flight.key(), flight);
+        flight.done().countDown();
+    }
+
+    private void awaitInFlight(TaskKey key) {
+        InFlightWrite flight = inFlight.get(key);
+        if (flight == null) {
+            return;
+        }
+        try {
+            if (!flight.done().await(IN_FLIGHT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Buffered update of task {} is still being flushed, writing without waiting for it", key.taskId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record TaskKey(Long userId, Long taskId) {
+    }
+
+    private record InFlightWrite(TaskKey key, PendingWrite write, CountDownLatch done) {
+    }
+
+    /**
+     * The latest title and description of a task plus the number of updates they stand for. The flush advances
+     * the stored version by that number, so the version handed out with each buffered update stays valid.
+     */
+    private record PendingWrite(long baseVersion, int updates, String title, String description,
+                                long firstUpdatedAt, long lastUpdatedAt) {
+
+        static PendingWrite first(long baseVersion, TaskRequestDto dto, long now) {
+            return new PendingWrite(baseVersion, 1, dto.getTitle(), dto.getDescription(), now, now);
+        }
+
+        PendingWrite merge(TaskRequestDto dto, long now) {
+            return new PendingWrite(baseVersion, updates + 1, dto.getTitle(), dto.getDescription(), firstUpdatedAt, now);
+        }
+
+        // Combines a write that failed to flush with one buffered on top of it while it was in flight
+        PendingWrite followedBy(PendingWrite newer) {
+            return new PendingWrite(baseVersion, updates + newer.updates(), newer.title(), newer.description(),
+                    firstUpdatedAt, newer.lastUpdatedAt());
+        }
+
+        long version() {
+            return baseVersion + updates;
+        }
+
+        TaskResponseDto toResponseDto(Long taskId, Long userId) {
+            return TaskResponseDto.builder()
+                    .id(taskId)
+                    .title(title)
+                    .description(description)
+                    .userId(userId)
+                    .version(version())
+                    .build();
+        }
+    }
+
+}
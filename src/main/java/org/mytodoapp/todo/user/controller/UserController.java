@@ -8,12 +8,14 @@ import org.mytodoapp.todo.user.dto.UserCreateDto;
 import org.mytodoapp.todo.user.dto.UserResponseDto;
 import org.mytodoapp.todo.user.dto.UserUpdateDto;
 import org.mytodoapp.todo.user.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Validated
 @RequiredArgsConstructor
 @RestController
@@ -2,8 +2,14 @@ package org.mytodoapp.todo.user.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.mytodoapp.todo.shared.config.CacheConfig;
 import org.mytodoapp.todo.task.entity.Task;
 
+import java.time.Instant;
 import java.util.List;
 
 @Builder
@@ -13,6 +19,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USERS)
+// Removing a user only marks it; the purge job deletes its tasks and then the row later
+@SQLDelete(sql = "update users set deleted_at = current_timestamp where id = ?")
+@SQLRestriction("deleted_at is null")
 public class User {
 
     @Id
@@ -45,7 +55,11 @@ public class User {
     @Column(name = "credentials_non_expired", nullable = false)
     private boolean credentialsNonExpired = true;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    // No JPA cascade: the foreign key deletes a user's tasks with the user row, without loading them
+    @OneToMany(mappedBy = "user")
     private List<Task> tasks;
 
 }
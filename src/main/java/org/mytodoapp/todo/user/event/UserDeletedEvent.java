@@ -0,0 +1,7 @@
+package org.mytodoapp.todo.user.event;
+
+/**
+ * Published when a user, and with it all of their tasks, is deleted.
+ */
+public record UserDeletedEvent(Long userId) {
+}
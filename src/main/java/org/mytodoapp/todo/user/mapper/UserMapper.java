@@ -11,11 +11,13 @@ import org.mytodoapp.todo.user.entity.User;
 @Mapper(componentModel = "spring")
 public interface UserMapper {
 
+    @Mapping(target = "deletedAt", ignore = true)
     User toEntity(UserCreateDto dto);
 
     UserResponseDto toResponseDto(User entity);
 
     @Mapping(target = "id",  ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     void updateUserFromDto(UserUpdateDto dto, @MappingTarget User entity);
 
 }
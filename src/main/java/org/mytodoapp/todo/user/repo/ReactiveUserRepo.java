@@ -0,0 +1,65 @@
+package org.mytodoapp.todo.user.repo;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.user.entity.Role;
+import org.mytodoapp.todo.user.entity.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * The R2DBC counterpart of the {@link UserRepo} queries the reactive task API needs. Without Hibernate's
+ * restriction every query filters out soft-deleted users itself.
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Repository
+public class ReactiveUserRepo {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("""
+                        select id, name, email, password, role, enabled, account_non_expired,
+                               account_non_locked, credentials_non_expired
+                        from users
+                        where email = :email and deleted_at is null
+                        """)
+                .bind("email", email)
+                .map(ReactiveUserRepo::toUser)
+                .one();
+    }
+
+    // Emits the number of rows updated, so zero also tells the caller that the user does not exist
+    public Mono<Long> adjustTaskCount(Long userId, int delta) {
+        return databaseClient.sql("update users set task_count = task_count + :delta where id = :userId and deleted_at is null")
+                .bind("delta", delta)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> findTaskCountById(Long userId) {
+        return databaseClient.sql("select task_count from users where id = :userId and deleted_at is null")
+                .bind("userId", userId)
+                .map(row -> row.get("task_count", Long.class))
+                .one();
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .username(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .password(row.get("password", String.class))
+                .role(Role.valueOf(row.get("role", String.class)))
+                .enabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)))
+                .accountNonExpired(Boolean.TRUE.equals(row.get("account_non_expired", Boolean.class)))
+                .accountNonLocked(Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class)))
+                .credentialsNonExpired(Boolean.TRUE.equals(row.get("credentials_non_expired", Boolean.class)))
+                .build();
+    }
+
+}
@@ -1,16 +1,74 @@
 package org.mytodoapp.todo.user.repo;
 
+import jakarta.persistence.QueryHint;
+import org.mytodoapp.todo.shared.config.CacheConfig;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
 import org.mytodoapp.todo.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
 @Repository
 public interface UserRepo extends JpaRepository<User, Long> {
 
-    boolean existsByEmail(String email);
+    // users.task_count is deliberately not mapped on User, so the counter never goes stale in the
+    // second-level cache; declaring its own query space stops these updates from evicting cached users
+    String TASK_COUNT_SPACE = "users_task_count";
+
+    // Uniqueness checks also see users awaiting purge, whose rows still hold the unique name and email
+    @Query(value = "select exists (select 1 from users where email = :email)", nativeQuery = true)
+    boolean existsByEmail(@Param("email") String email);
+
+    @Query(value = "select exists (select 1 from users where name = :username)", nativeQuery = true)
+    boolean existsByUsername(@Param("username") String username);
+
     Optional<User> findByUsername(String username);
+
+    // Bypasses the second-level cache on purpose: on a task shard the row is only a placeholder for the owner
+    @Query(value = "select exists (select 1 from users where id = :id and deleted_at is null)", nativeQuery = true)
+    boolean existsLiveById(@Param("id") Long id);
+
+    // Resolved on every authenticated request; Hibernate drops the cached result whenever users is written
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheConfig.USERS_BY_EMAIL)
+    })
     Optional<User> findByEmail(String email);
 
+    @Modifying
+    @Query(value = "update users set task_count = task_count + :delta where id = :userId", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = TASK_COUNT_SPACE))
+    int adjustTaskCount(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Query(value = "select task_count from users where id = :userId and deleted_at is null", nativeQuery = true)
+    Optional<Long> findTaskCountById(@Param("userId") Long userId);
+
+    @Query(value = "select id as userId, task_count as taskCount from users where deleted_at is null order by id", nativeQuery = true)
+    List<TaskCountDto> findTaskCounts();
+
+    // Constant time regardless of the user's task count: the tasks stay until TaskPurgeJob removes them.
+    // A bulk update of User also evicts the cached users and the cached findByEmail results.
+    @Modifying
+    @Query("update User u set u.deletedAt = :deletedAt where u.id = :id")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
+
+    @Query(value = "select id from users where deleted_at is not null order by id limit :limit", nativeQuery = true)
+    List<Long> findDeletedIds(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from users where id = :id and deleted_at is not null", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "users"))
+    int purgeById(@Param("id") Long id);
+
 }
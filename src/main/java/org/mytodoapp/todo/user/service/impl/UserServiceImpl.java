@@ -1,22 +1,30 @@
 package org.mytodoapp.todo.user.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.mytodoapp.todo.shared.config.MetricsConfig;
+import org.mytodoapp.todo.shared.datasource.ReplicaRead;
 import org.mytodoapp.todo.shared.exception.DuplicateResourceException;
 import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
 import org.mytodoapp.todo.user.dto.UserCreateDto;
 import org.mytodoapp.todo.user.dto.UserResponseDto;
 import org.mytodoapp.todo.user.dto.UserUpdateDto;
 import org.mytodoapp.todo.user.entity.User;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
 import org.mytodoapp.todo.user.mapper.UserMapper;
 import org.mytodoapp.todo.user.repo.UserRepo;
 import org.mytodoapp.todo.user.service.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @PreAuthorize("hasRole('ADMIN')")
 @RequiredArgsConstructor
 @Service
@@ -25,6 +33,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepo userRepo;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserResponseDto add(UserCreateDto dto) {
@@ -32,7 +41,7 @@ public class UserServiceImpl implements UserService {
             throw new DuplicateResourceException("Email already exists: " + dto.getEmail());
         }
 
-        if (userRepo.findByUsername(dto.getUsername()).isPresent()) {
+        if (userRepo.existsByUsername(dto.getUsername())) {
             throw new DuplicateResourceException("Username already exists: " + dto.getUsername());
         }
 
@@ -54,12 +63,18 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        userRepo.findById(id).orElseThrow(() -> new RecordNotFoundException("User", id));
-        userRepo.deleteById(id);
+        // Marks the user only, so the cost does not depend on how many tasks they own
+        if (userRepo.softDeleteById(id, Instant.now()) == 0) {
+            throw new RecordNotFoundException("User", id);
+        }
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead(key = "#id")
     public UserResponseDto findById(Long id) {
         return userRepo.findById(id)
                 .map(userMapper::toResponseDto)
@@ -67,6 +82,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReplicaRead
     public List<UserResponseDto> findAll() {
         return userRepo.findAll()
                 .stream()
@@ -0,0 +1,26 @@
+-- Baseline schema for the User and Task entities.
+-- Databases previously created by ddl-auto=update are baselined at this version and skip this script.
+
+create table users (
+    id                      bigint generated by default as identity primary key,
+    name                    varchar(255) not null,
+    email                   varchar(255) not null,
+    password                varchar(255) not null,
+    role                    varchar(255) not null check (role in ('ADMIN', 'USER')),
+    enabled                 boolean      not null,
+    account_non_expired     boolean      not null,
+    account_non_locked      boolean      not null,
+    credentials_non_expired boolean      not null,
+    constraint uk_users_name unique (name),
+    constraint uk_users_email unique (email)
+);
+
+create sequence tasks_id_seq start with 1 increment by 50;
+
+create table tasks (
+    id          bigint       primary key,
+    title       varchar(255) not null,
+    description varchar(255) not null,
+    user_id     bigint       not null,
+    constraint fk_tasks_user_id foreign key (user_id) references users (id)
+);
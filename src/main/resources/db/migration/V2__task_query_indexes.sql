@@ -0,0 +1,9 @@
+-- Every task query is scoped by owner and ordered or filtered by id:
+-- findTasksByUserId, findByIdAndUserId, the keyset page (user_id = ? and id > ? order by id),
+-- countByUserId (index-only scan) and the set-based update/delete by (id, user_id).
+-- title/description are deliberately not included; they would double the index size.
+create index if not exists idx_tasks_user_id_id on tasks (user_id, id);
+
+-- Task ids are allocated by Hibernate's pooled optimizer in blocks of 50 (see Task.id).
+-- Databases created by ddl-auto still have the old identity sequence stepping by 1.
+alter sequence tasks_id_seq increment by 50;
@@ -0,0 +1,4 @@
+-- Denormalized per-user task counter, maintained in the same transaction as every task insert and delete
+alter table users add column task_count bigint not null default 0;
+
+update users u set task_count = (select count(*) from tasks t where t.user_id = u.id);
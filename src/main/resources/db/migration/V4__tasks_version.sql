@@ -0,0 +1,2 @@
+-- Optimistic lock version for tasks, exposed to clients as the task's ETag
+alter table tasks add column version bigint not null default 0;
@@ -0,0 +1,9 @@
+-- Soft-delete markers. Marked rows are hidden from the application and hard-deleted later,
+-- in bounded chunks, by the purge job.
+alter table tasks add column deleted_at timestamp(6) with time zone;
+alter table users add column deleted_at timestamp(6) with time zone;
+
+-- The purge job scans only marked rows; partial indexes keep live rows out of those scans.
+-- A deleted user's tasks are found through idx_tasks_user_id_id.
+create index if not exists idx_tasks_deleted on tasks (id) where deleted_at is not null;
+create index if not exists idx_users_deleted on users (id) where deleted_at is not null;
@@ -0,0 +1,19 @@
+-- Deleting a user row now removes its tasks in the same statement, so nothing has to load
+-- a user's tasks to delete them (the JPA cascade on User.tasks is gone).
+-- Databases baselined from ddl-auto=update carry a generated name for this key, so it is looked up.
+do $$
+declare
+    fk record;
+begin
+    for fk in
+        select conname from pg_constraint
+        where conrelid = 'tasks'::regclass and confrelid = 'users'::regclass and contype = 'f'
+    loop
+        execute format('alter table tasks drop constraint %I', fk.conname);
+    end loop;
+end $$;
+
+-- Added unvalidated, then validated separately: validation takes a lock that does not block writes
+alter table tasks add constraint fk_tasks_user_id
+    foreign key (user_id) references users (id) on delete cascade not valid;
+alter table tasks validate constraint fk_tasks_user_id;
@@ -0,0 +1,7 @@
+-- Which shard holds each user's tasks when task sharding is on (task.sharding.*). Only shard 0 uses it;
+-- the other shards run the same scripts and leave it empty. No foreign key: the purge job removes the row
+-- after the user's tasks, on whichever shard they are.
+create table task_shard_assignments (
+    user_id bigint  primary key,
+    shard   integer not null
+);
@@ -0,0 +1,3 @@
+-- Checks the existing tasks against the key added in V6. In its own transaction, validation only takes a
+-- share update exclusive lock on tasks, so reads and writes carry on during the scan.
+alter table tasks validate constraint fk_tasks_user_id;
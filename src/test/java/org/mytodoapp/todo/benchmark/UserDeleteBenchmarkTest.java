@@ -0,0 +1,162 @@
+package org.mytodoapp.todo.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.task.purge.TaskPurgeJob;
+import org.mytodoapp.todo.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deletes users owning 1k, 10k and 100k tasks on a real PostgreSQL and reports the median time of the
+ * API delete, of the background purge and of a plain row delete relying on the cascading foreign key.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "jwt.secret=YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldC0wMTIzNDU2Nzg5",
+        "task.search.rebuild-on-startup=false",
+        "task.purge.interval=1h",
+        "task.purge.chunk-size=10000",
+        "task.purge.pause-between-chunks=0ms",
+        "task.purge.max-chunks-per-run=1000"
+})
+class UserDeleteBenchmarkTest {
+
+    private static final int[] TASK_COUNTS = {1_000, 10_000, 100_000};
+    private static final int ROUNDS = 5;
+
+    // Stopped by the library's shutdown hook, after the Spring context has closed its pool
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private final AtomicInteger users = new AtomicInteger();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TaskPurgeJob taskPurgeJob;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void authenticateAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "benchmark", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userDeleteTimeDoesNotDependOnTaskCount() {
+        // Warm-up: connection pool, statement caches, JIT
+        for (int i = 0; i < ROUNDS; i++) {
+            deleteAndPurge(TASK_COUNTS[0]);
+        }
+
+        System.out.printf("%n%10s %14s %14s %16s%n", "tasks", "delete (ms)", "purge (ms)", "row delete (ms)");
+        List<Double> deleteMedians = new ArrayList<>();
+        for (int taskCount : TASK_COUNTS) {
+            List<Double> deletes = new ArrayList<>();
+            List<Double> purges = new ArrayList<>();
+            List<Double> rowDeletes = new ArrayList<>();
+            for (int i = 0; i < ROUNDS; i++) {
+                double[] timings = deleteAndPurge(taskCount);
+                deletes.add(timings[0]);
+                purges.add(timings[1]);
+
+                Long userId = seedUser(taskCount);
+                rowDeletes.add(millis(() -> jdbcTemplate.update("delete from users where id = ?", userId)));
+                assertEquals(0, countTasks(userId));
+            }
+            deleteMedians.add(median(deletes));
+            System.out.printf("%10d %14.2f %14.2f %16.2f%n", taskCount, median(deletes), median(purges), median(rowDeletes));
+        }
+
+        // Loose bound: a delete that still touched every task would be about 100x slower at 100k than at 1k
+        double smallest = deleteMedians.getFirst();
+        double largest = deleteMedians.getLast();
+        assertTrue(largest <= smallest * 5 + 5,
+                "Delete took " + largest + " ms at " + TASK_COUNTS[TASK_COUNTS.length - 1] + " tasks vs " + smallest + " ms");
+    }
+
+    // Returns the API delete and the purge time in milliseconds
+    private double[] deleteAndPurge(int taskCount) {
+        Long userId = seedUser(taskCount);
+        double delete = millis(() -> userService.delete(userId));
+        assertEquals(taskCount, countTasks(userId));
+
+        double purge = millis(taskPurgeJob::purge);
+        assertEquals(0, countTasks(userId));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from users where id = ?", Integer.class, userId));
+        return new double[]{delete, purge};
+    }
+
+    private Long seedUser(int taskCount) {
+        int n = users.incrementAndGet();
+        Long userId = jdbcTemplate.queryForObject("""
+                insert into users (name, email, password, role, enabled, account_non_expired,
+                                   account_non_locked, credentials_non_expired, task_count)
+                values (?, ?, 'not-a-hash', 'USER', true, true, true, true, ?)
+                returning id
+                """, Long.class, "bench" + n, "bench" + n + "@example.com", taskCount);
+        jdbcTemplate.update("""
+                insert into tasks (id, title, description, user_id)
+                select nextval('tasks_id_seq'), 'Task ' || g, 'Benchmark task', ?
+                from generate_series(1, ?) g
+                """, userId, taskCount);
+        jdbcTemplate.execute("analyze tasks");
+        return userId;
+    }
+
+    private int countTasks(Long userId) {
+        return jdbcTemplate.queryForObject("select count(*) from tasks where user_id = ?", Integer.class, userId);
+    }
+
+    private static double millis(Runnable action) {
+        long started = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - started) / 1_000_000.0;
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
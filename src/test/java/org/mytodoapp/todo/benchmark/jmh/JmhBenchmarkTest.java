@@ -0,0 +1,49 @@
+package org.mytodoapp.todo.benchmark.jmh;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the JMH benchmarks in this package in a forked JVM with the GC profiler, so every score comes with
+ * its allocation rate per operation ({@code gc.alloc.rate.norm}). Results are written to
+ * {@code target/jmh-result.json}. Run with {@code mvn test -Pbenchmark -Dtest=JmhBenchmarkTest}; narrow it
+ * down with {@code -Djmh.include=JwtBenchmark}.
+ */
+@Tag("benchmark")
+class JmhBenchmarkTest {
+
+    @Test
+    void runBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JmhBenchmarkTest.class.getPackageName() + "\\."
+                        + System.getProperty("jmh.include", ".*Benchmark") + "\\.")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                // Replaces the test JVM's arguments (coverage and Mockito agents) for the forked JVM
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "No benchmark matched " + options.getIncludes());
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.mytodoapp.todo.benchmark.jmh;
+
+import org.mytodoapp.todo.security.config.JwtProperties;
+import org.mytodoapp.todo.security.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+
+/**
+ * Token issue and the two parses the authentication filter does on every request.
+ */
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "jane.doe@example.com";
+    private static final Map<String, Object> CLAIMS = Map.of("role", "USER", "userId", 42L);
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldC0wMTIzNDU2Nzg5");
+        properties.setExpiration(900_000L);
+        properties.setRefreshExpiration(604_800_000L);
+        jwtUtil = new JwtUtil(properties);
+        token = jwtUtil.generateAccessToken(EMAIL, CLAIMS);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(EMAIL, CLAIMS);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtUtil.isTokenValid(token, EMAIL);
+    }
+
+}
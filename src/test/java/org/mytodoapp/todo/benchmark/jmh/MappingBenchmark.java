@@ -0,0 +1,70 @@
+package org.mytodoapp.todo.benchmark.jmh;
+
+import org.mapstruct.factory.Mappers;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.entity.Task;
+import org.mytodoapp.todo.task.mapper.TaskMapper;
+import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.mytodoapp.todo.user.dto.UserResponseDto;
+import org.mytodoapp.todo.user.entity.Role;
+import org.mytodoapp.todo.user.entity.User;
+import org.mytodoapp.todo.user.mapper.UserMapper;
+import org.mytodoapp.todo.user.util.UserTestDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Entity to DTO mapping as done for single reads and for a page of tasks.
+ */
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private final TaskMapper taskMapper = Mappers.getMapper(TaskMapper.class);
+    private final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        user = createUser();
+    }
+
+    @Benchmark
+    public List<TaskResponseDto> taskToResponseDto(TaskPage page) {
+        return page.tasks.stream().map(taskMapper::toResponseDto).toList();
+    }
+
+    @Benchmark
+    public UserResponseDto userToResponseDto() {
+        return userMapper.toResponseDto(user);
+    }
+
+    private static User createUser() {
+        return UserTestDataFactory.createUser(42L, "jane", "jane.doe@example.com", "hash", Role.USER);
+    }
+
+    @State(Scope.Benchmark)
+    public static class TaskPage {
+
+        // A single task, the default page size and the maximum page size
+        @Param({"1", "50", "200"})
+        public int size;
+
+        private List<Task> tasks;
+
+        @Setup
+        public void setup() {
+            User user = createUser();
+            tasks = IntStream.rangeClosed(1, size)
+                    .mapToObj(i -> TaskTestDataFactory.createTask((long) i, "Task " + i, "Description of task " + i, user))
+                    .toList();
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.mytodoapp.todo.benchmark.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.mytodoapp.todo.shared.dto.ApiResponse;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Serialization of a task list response body, with an object mapper configured like Spring MVC's.
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "200"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<TaskResponseDto>> response;
+
+    @Setup
+    public void setup() {
+        writer = Jackson2ObjectMapperBuilder.json().build()
+                .writerFor(new TypeReference<ApiResponse<List<TaskResponseDto>>>() {
+                });
+        response = ApiResponse.ok(IntStream.rangeClosed(1, size)
+                .mapToObj(i -> TaskTestDataFactory.createTaskResponseDto((long) i, "Task " + i, "Description of task " + i, 42L))
+                .toList());
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.mytodoapp.todo.benchmark.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects raw response times per endpoint. Each virtual user owns one, so recording needs no locking;
+ * the recorders are merged once the run is over and percentiles are taken from the exact samples.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    void record(String endpoint, long nanos, boolean succeeded) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, succeeded);
+    }
+
+    static List<EndpointReport> report(Collection<LatencyRecorder> recorders, Duration measured) {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.samples.forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(s));
+        }
+        double seconds = measured.toNanos() / 1e9;
+        return merged.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey(), seconds))
+                .toList();
+    }
+
+    record EndpointReport(String endpoint, int requests, int errors, double requestsPerSecond,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long value, boolean succeeded) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        EndpointReport report(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return new EndpointReport(endpoint, size, errors, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted[size - 1] / 1e6);
+        }
+
+        // Nearest-rank percentile, in milliseconds
+        private static double percentile(long[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.mytodoapp.todo.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load: one thread per virtual user, each logging in and then issuing the next request of
+ * the mix as soon as the previous one completes. Requests started during the warm-up are not recorded.
+ * Being closed-loop, it measures the latency at the throughput the server sustains rather than at a fixed
+ * arrival rate, so compare percentiles between runs at the same concurrency.
+ */
+final class LoadGenerator {
+
+    private final URI baseUri;
+    private final LoadMix mix;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadGenerator(URI baseUri, LoadMix mix, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.mix = mix;
+        this.objectMapper = objectMapper;
+    }
+
+    List<LatencyRecorder.EndpointReport> run(List<VirtualUser> users, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(users.size())) {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                VirtualUser user = users.get(i);
+                SplittableRandom random = new SplittableRandom(i);
+                futures.add(executor.submit(() -> drive(user, random, measureFrom, measureUntil)));
+            }
+            for (Future<LatencyRecorder> future : futures) {
+                recorders.add(future.get());
+            }
+        }
+        return LatencyRecorder.report(recorders, duration);
+    }
+
+    private LatencyRecorder drive(VirtualUser user, SplittableRandom random, long measureFrom, long measureUntil)
+            throws IOException, InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        login(user);
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            String operation = mix.pick(random);
+            // Without a known task, reads and writes of a single task fall back to creating one
+            if (user.taskIds.isEmpty() && (operation.equals(LoadMix.GET) || operation.equals(LoadMix.UPDATE)
+                    || operation.equals(LoadMix.DELETE))) {
+                operation = LoadMix.CREATE;
+            }
+            boolean succeeded = execute(operation, user, random);
+            if (now >= measureFrom) {
+                recorder.record(operation, System.nanoTime() - now, succeeded);
+            }
+        }
+        return recorder;
+    }
+
+    private boolean execute(String operation, VirtualUser user, SplittableRandom random)
+            throws IOException, InterruptedException {
+        return switch (operation) {
+            case LoadMix.LOGIN -> login(user);
+            case LoadMix.LIST -> send(user, "GET", "/api/me/tasks", null).statusCode() == 200;
+            case LoadMix.GET -> send(user, "GET", "/api/me/tasks/" + randomTask(user, random), null).statusCode() == 200;
+            case LoadMix.CREATE -> {
+                HttpResponse<String> response = send(user, "POST", "/api/me/tasks", taskBody(random));
+                if (response.statusCode() != 201) {
+                    yield false;
+                }
+                user.taskIds.add(objectMapper.readTree(response.body()).at("/data/id").asLong());
+                yield true;
+            }
+            case LoadMix.UPDATE -> send(user, "PUT", "/api/me/tasks/" + randomTask(user, random), taskBody(random)).statusCode() == 200;
+            case LoadMix.DELETE -> {
+                Long taskId = user.taskIds.remove(random.nextInt(user.taskIds.size()));
+                yield send(user, "DELETE", "/api/me/tasks/" + taskId, null).statusCode() == 204;
+            }
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    private boolean login(VirtualUser user) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", user.email, "password", user.password));
+        HttpResponse<String> response = send(null, "POST", "/api/auth/login", body);
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        user.accessToken = json.at("/data/accessToken").asText();
+        return true;
+    }
+
+    private HttpResponse<String> send(VirtualUser user, String method, String path, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (user != null) {
+            request.header("Authorization", "Bearer " + user.accessToken);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Long randomTask(VirtualUser user, SplittableRandom random) {
+        return user.taskIds.get(random.nextInt(user.taskIds.size()));
+    }
+
+    private static String taskBody(SplittableRandom random) {
+        int n = random.nextInt(1_000_000);
+        return "{\"title\":\"Load task " + n + "\",\"description\":\"Created by the load generator\"}";
+    }
+
+    /**
+     * A seeded account and the ids of the tasks it owns, kept up to date as the user creates and deletes tasks.
+     */
+    static final class VirtualUser {
+
+        private final String email;
+        private final String password;
+        private final List<Long> taskIds;
+        private String accessToken;
+
+        VirtualUser(String email, String password, List<Long> taskIds) {
+            this.email = email;
+            this.password = password;
+            this.taskIds = new ArrayList<>(taskIds);
+        }
+    }
+
+}
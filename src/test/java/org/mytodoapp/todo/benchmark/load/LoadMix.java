@@ -0,0 +1,61 @@
+package org.mytodoapp.todo.benchmark.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation, parsed from a spec such as {@code list=40,get=30,create=10}.
+ */
+final class LoadMix {
+
+    static final String LOGIN = "login";
+    static final String LIST = "list";
+    static final String GET = "get";
+    static final String CREATE = "create";
+    static final String UPDATE = "update";
+    static final String DELETE = "delete";
+
+    private static final Set<String> OPERATIONS = Set.of(LOGIN, LIST, GET, CREATE, UPDATE, DELETE);
+
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadMix(Map<String, Integer> weights) {
+        this.operations = weights.keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Load mix needs at least one operation with a positive weight");
+        }
+    }
+
+    static LoadMix parse(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            String operation = pair[0].trim();
+            if (pair.length != 2 || !OPERATIONS.contains(operation)) {
+                throw new IllegalArgumentException("Invalid load mix entry: " + part);
+            }
+            weights.put(operation, Integer.parseInt(pair[1].trim()));
+        }
+        return new LoadMix(weights);
+    }
+
+    String pick(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+}
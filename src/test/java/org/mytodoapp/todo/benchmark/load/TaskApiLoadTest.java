@@ -0,0 +1,140 @@
+package org.mytodoapp.todo.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the whole application on a random port against an embedded PostgreSQL, seeds users and tasks, and
+ * drives login plus a task CRUD mix over HTTP. Prints p50/p99/p999 and requests per second per operation and
+ * writes them to {@code target/load-report.json}. Run with {@code mvn test -Pbenchmark -Dtest=TaskApiLoadTest}.
+ * <p>
+ * The load is tuned with {@code -Dload.users}, {@code -Dload.tasks-per-user}, {@code -Dload.warmup},
+ * {@code -Dload.duration} and {@code -Dload.mix}; any application property can be overridden the same way
+ * (e.g. {@code -Dtask.pagination.default-limit=200}) to compare configurations.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "jwt.secret=YmVuY2htYXJrLW9ubHktc2VjcmV0LWJlbmNobWFyay1vbmx5LXNlY3JldC0wMTIzNDU2Nzg5",
+        "management.server.port=-1",
+        "task.search.rebuild-on-startup=false"
+})
+class TaskApiLoadTest {
+
+    private static final String PASSWORD = "Passw0rd!";
+    private static final String DEFAULT_MIX = "login=2,list=38,get=25,create=10,update=20,delete=5";
+
+    // Stopped by the library's shutdown hook, after the Spring context has closed its pool
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Test
+    void taskApiUnderLoad() throws Exception {
+        int userCount = Integer.getInteger("load.users", 16);
+        int tasksPerUser = Integer.getInteger("load.tasks-per-user", 100);
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("load.warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("load.duration", "30s"));
+        String mix = System.getProperty("load.mix", DEFAULT_MIX);
+
+        List<LoadGenerator.VirtualUser> users = seed(userCount, tasksPerUser);
+        LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), LoadMix.parse(mix), objectMapper);
+        List<LatencyRecorder.EndpointReport> endpoints = generator.run(users, warmup, duration);
+
+        print(endpoints);
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("users", userCount);
+        config.put("tasksPerUser", tasksPerUser);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", duration.toSeconds());
+        config.put("mix", mix);
+        Path report = Path.of(System.getProperty("load.report", "target/load-report.json"));
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(report.toFile(), Map.of("config", config, "endpoints", endpoints));
+
+        int requests = endpoints.stream().mapToInt(LatencyRecorder.EndpointReport::requests).sum();
+        int errors = endpoints.stream().mapToInt(LatencyRecorder.EndpointReport::errors).sum();
+        assertTrue(requests > 0, "No request completed within the measurement window");
+        assertTrue(errors <= requests / 100, errors + " of " + requests + " requests failed");
+    }
+
+    private List<LoadGenerator.VirtualUser> seed(int userCount, int tasksPerUser) {
+        // One hash for every account, so seeding does not pay the BCrypt cost per user
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<LoadGenerator.VirtualUser> users = new ArrayList<>();
+        for (int n = 1; n <= userCount; n++) {
+            String email = "load" + n + "@example.com";
+            Long userId = jdbcTemplate.queryForObject("""
+                    insert into users (name, email, password, role, enabled, account_non_expired,
+                                       account_non_locked, credentials_non_expired, task_count)
+                    values (?, ?, ?, 'USER', true, true, true, true, ?)
+                    returning id
+                    """, Long.class, "load" + n, email, hash, tasksPerUser);
+            List<Long> taskIds = jdbcTemplate.queryForList("""
+                    insert into tasks (id, title, description, user_id)
+                    select nextval('tasks_id_seq'), 'Task ' || g, 'Seeded task', ?
+                    from generate_series(1, ?) g
+                    returning id
+                    """, Long.class, userId, tasksPerUser);
+            users.add(new LoadGenerator.VirtualUser(email, PASSWORD, taskIds));
+        }
+        jdbcTemplate.execute("analyze");
+        return users;
+    }
+
+    private static void print(List<LatencyRecorder.EndpointReport> endpoints) {
+        System.out.printf("%n%-8s %9s %7s %9s %10s %10s %10s %10s%n",
+                "op", "requests", "errors", "req/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)");
+        for (LatencyRecorder.EndpointReport e : endpoints) {
+            System.out.printf("%-8s %9d %7d %9.1f %10.2f %10.2f %10.2f %10.2f%n", e.endpoint(), e.requests(),
+                    e.errors(), e.requestsPerSecond(), e.p50Ms(), e.p99Ms(), e.p999Ms(), e.maxMs());
+        }
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -13,6 +13,7 @@ import org.mytodoapp.todo.security.auth.dto.RegisterRequestDto;
 import org.mytodoapp.todo.security.auth.mapper.AuthMapper;
 import org.mytodoapp.todo.security.auth.util.AuthTestDataFactory;
 import org.mytodoapp.todo.security.util.JwtUtil;
+import org.mytodoapp.todo.shared.datasource.ReadYourWritesTracker;
 import org.mytodoapp.todo.shared.exception.DuplicateResourceException;
 import org.mytodoapp.todo.user.entity.Role;
 import org.mytodoapp.todo.user.entity.User;
@@ -44,6 +45,8 @@ public class AuthServiceImplTest {
     private JwtUtil jwtUtil;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -111,6 +114,7 @@ public class AuthServiceImplTest {
         verify(userRepo).existsByEmail(user.getEmail());
         verify(authMapper).toUser(registerRequestDto);
         verify(userRepo).save(user);
+        verify(readYourWritesTracker).markWritten(user.getEmail());
         verify(jwtUtil).generateAccessToken(anyString(), anyMap());
         verify(jwtUtil).generateRefreshToken(anyString());
     }
@@ -0,0 +1,51 @@
+package org.mytodoapp.todo.security.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.security.util.BoundedPasswordEncoder;
+import org.mytodoapp.todo.shared.config.ConcurrencyProperties;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderConfigTest {
+
+    private final PasswordEncoderConfig config = new PasswordEncoderConfig();
+
+    @Test
+    void givenPlatformThreads_whenCreatingEncoder_thenHashesAreNotBounded() {
+        // Act
+        PasswordEncoder encoder = config.passwordEncoder(new SimpleMeterRegistry(), new ConcurrencyProperties(),
+                new MockEnvironment());
+
+        // Assert
+        assertFalse(encoder instanceof BoundedPasswordEncoder);
+    }
+
+    @Test
+    void givenVirtualThreads_whenCreatingEncoder_thenHashesAreBounded() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        // Act
+        PasswordEncoder encoder = config.passwordEncoder(new SimpleMeterRegistry(), new ConcurrencyProperties(), environment);
+
+        // Assert
+        assertInstanceOf(BoundedPasswordEncoder.class, encoder);
+    }
+
+    @Test
+    void givenConfiguredLimit_whenCreatingEncoderOnPlatformThreads_thenHashesAreBounded() {
+        // Arrange
+        ConcurrencyProperties properties = new ConcurrencyProperties();
+        properties.setMaxConcurrentPasswordHashes(2);
+
+        // Act
+        PasswordEncoder encoder = config.passwordEncoder(new SimpleMeterRegistry(), properties, new MockEnvironment());
+
+        // Assert
+        assertInstanceOf(BoundedPasswordEncoder.class, encoder);
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.mytodoapp.todo.security.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+    }
+
+    @Test
+    void givenPassword_whenEncodeAndMatch_thenRecordEachOutcome() {
+        // Arrange
+        String hash = passwordEncoder.encode("secret");
+
+        // Act
+        boolean match = passwordEncoder.matches("secret", hash);
+        boolean mismatch = passwordEncoder.matches("wrong", hash);
+
+        // Assert
+        assertTrue(match);
+        assertFalse(mismatch);
+        assertEquals(1, meterRegistry.get(TimedPasswordEncoder.ENCODE_TIMER).timer().count());
+        assertEquals(1, meterRegistry.get(TimedPasswordEncoder.MATCHES_TIMER).tag("outcome", "match").timer().count());
+        assertEquals(1, meterRegistry.get(TimedPasswordEncoder.MATCHES_TIMER).tag("outcome", "mismatch").timer().count());
+    }
+
+}
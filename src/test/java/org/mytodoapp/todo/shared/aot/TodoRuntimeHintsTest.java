@@ -0,0 +1,59 @@
+package org.mytodoapp.todo.shared.aot;
+
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.security.config.JwtProperties;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.entity.Task;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TodoRuntimeHintsTest {
+
+    private final RuntimeHints hints = registerHints();
+
+    @Test
+    void givenHints_whenCheckingNamedTypes_thenEveryNameResolvesToAClass() {
+        // Arrange
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        // Act & Assert
+        // A renamed mapper or a jjwt upgrade would otherwise only surface at runtime in the native image
+        Stream.concat(TodoRuntimeHints.MAPPER_IMPLEMENTATIONS.stream(), TodoRuntimeHints.JJWT_IMPLEMENTATIONS.stream())
+                .forEach(name -> assertDoesNotThrow(() -> Class.forName(name, false, classLoader), name));
+    }
+
+    @Test
+    void givenHints_whenCheckingMappersAndJjwt_thenTheirConstructorsAreRegistered() throws Exception {
+        // Act & Assert
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.mytodoapp.todo.task.mapper.TaskMapperImpl")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(Class.forName("io.jsonwebtoken.impl.DefaultJwtBuilder").getConstructor()).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+
+    @Test
+    void givenHints_whenCheckingEntitiesAndProperties_thenTheyAreReflectable() throws Exception {
+        // Act & Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onField(Task.class.getDeclaredField("title")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(TaskResponseDto.class.getConstructor(
+                Long.class, String.class, String.class, Long.class, Long.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(JwtProperties.class.getMethod("setSecret", String.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("caffeine.conf").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/V1__create_users_and_tasks.sql").test(hints));
+    }
+
+    private static RuntimeHints registerHints() {
+        RuntimeHints hints = new RuntimeHints();
+        new TodoRuntimeHints().registerHints(hints, TodoRuntimeHintsTest.class.getClassLoader());
+        return hints;
+    }
+
+}
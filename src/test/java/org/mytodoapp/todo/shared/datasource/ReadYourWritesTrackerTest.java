@@ -0,0 +1,87 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.shared.config.ReplicaProperties;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadYourWritesTrackerTest {
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenMarkedKey_whenWroteRecently_thenOnlyThatKeyIsRecent() {
+        // Arrange
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties(Duration.ofMinutes(1)));
+
+        // Act
+        tracker.markWritten("alice@example.com");
+
+        // Assert
+        assertTrue(tracker.wroteRecently("alice@example.com"));
+        assertFalse(tracker.wroteRecently("bob@example.com"));
+        assertFalse(tracker.wroteRecently(null));
+    }
+
+    @Test
+    void givenTaskChanged_whenWroteRecently_thenOwnerIsRecent() {
+        // Arrange
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties(Duration.ofMinutes(1)));
+
+        // Act
+        tracker.onTaskChanged(TaskChangedEvent.deleted(1L, 10L));
+
+        // Assert
+        assertTrue(tracker.wroteRecently(1L));
+        assertFalse(tracker.wroteRecently(2L));
+    }
+
+    @Test
+    void givenExpiredWindow_whenWroteRecently_thenNotRecentAndEvicted() {
+        // Arrange
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties(Duration.ZERO));
+        tracker.markWritten(1L);
+
+        // Act
+        tracker.evictExpired();
+
+        // Assert
+        assertFalse(tracker.wroteRecently(1L));
+    }
+
+    @Test
+    void givenTransaction_whenMarkWritten_thenMarkAgainAfterCompletion() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties(Duration.ofMinutes(1)));
+
+        // Act
+        tracker.markWritten(1L);
+
+        // Assert
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        tracker.evictExpired();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(tracker.wroteRecently(1L));
+    }
+
+    private static ReplicaProperties properties(Duration window) {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setMaxReplicationLag(window);
+        properties.setHealthCheckInterval(Duration.ZERO);
+        return properties;
+    }
+
+}
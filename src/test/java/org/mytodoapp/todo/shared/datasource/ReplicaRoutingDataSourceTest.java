@@ -0,0 +1,203 @@
+package org.mytodoapp.todo.shared.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private ReplicaSet replicaSet;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+    @Mock
+    private HikariDataSource replicaPool;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaSet.Replica replica;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        replica = new ReplicaSet.Replica("replica-1", replicaPool);
+        dataSource = new ReplicaRoutingDataSource(primary, replicaSet, readYourWritesTracker, meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaReadContext.restore(null);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenReadWriteTransaction_whenGetConnection_thenUsePrimaryAndMarkUser() throws SQLException {
+        // Arrange
+        authenticate("alice@example.com");
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verify(readYourWritesTracker).markWritten("alice@example.com");
+        verifyNoInteractions(replicaSet);
+        assertEquals(1, routed("primary", "write"));
+    }
+
+    @Test
+    void givenReadOnlyTransactionWithoutReplicaRead_whenGetConnection_thenUsePrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(replicaSet, readYourWritesTracker);
+        assertEquals(1, routed("primary", "read"));
+    }
+
+    @Test
+    void givenReplicaRead_whenGetConnection_thenUseReplica() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadContext.bind(42L);
+        when(replicaSet.next()).thenReturn(Optional.of(replica));
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(replicaConnection, connection);
+        verify(readYourWritesTracker).wroteRecently(42L);
+        verifyNoInteractions(primary);
+        assertEquals(1, routed("replica", "read"));
+    }
+
+    @Test
+    void givenKeyWrittenRecently_whenGetConnection_thenUsePrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadContext.bind(42L);
+        when(readYourWritesTracker.wroteRecently(42L)).thenReturn(true);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(replicaSet);
+        assertEquals(1, routed("primary", "recent-write"));
+    }
+
+    @Test
+    void givenUserWroteRecently_whenGetConnection_thenUsePrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadContext.bind(42L);
+        authenticate("alice@example.com");
+        when(readYourWritesTracker.wroteRecently(any())).thenAnswer(i -> "alice@example.com".equals(i.getArgument(0)));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verifyNoInteractions(replicaSet);
+    }
+
+    @Test
+    void givenNoReplicaAvailable_whenGetConnection_thenUsePrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadContext.bind(42L);
+        when(replicaSet.next()).thenReturn(Optional.empty());
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertEquals(1, routed("primary", "no-replica"));
+    }
+
+    @Test
+    void givenReplicaRefusesConnection_whenGetConnection_thenMarkItUnavailableAndUsePrimary() throws SQLException {
+        // Arrange
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaReadContext.bind(42L);
+        SQLException refused = new SQLException("Connection refused");
+        when(replicaSet.next()).thenReturn(Optional.of(replica));
+        when(replicaPool.getConnection()).thenThrow(refused);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verify(replicaSet).markUnavailable(replica, refused);
+        assertEquals(1, routed("primary", "replica-failed"));
+    }
+
+    @Test
+    void givenPrimaryHikariPool_whenUnwrap_thenReturnPrimaryPool() throws SQLException {
+        // Arrange
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        when(primary.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(primary.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        // Act & Assert
+        assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+        assertSame(hikari, dataSource.unwrap(HikariDataSource.class));
+        assertSame(dataSource, dataSource.unwrap(ReplicaRoutingDataSource.class));
+    }
+
+    private void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE_COUNTER)
+                .tag("target", target)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+}
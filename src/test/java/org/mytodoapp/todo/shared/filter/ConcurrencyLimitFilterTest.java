@@ -0,0 +1,113 @@
+package org.mytodoapp.todo.shared.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(1, Duration.ZERO, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    @Test
+    void givenFreePermit_whenFilter_thenPassRequestOnAndReleasePermit() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/me/tasks"), response, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void givenAllPermitsInUse_whenFilter_thenRespondServiceUnavailable() throws Exception {
+        // Arrange
+        MockHttpServletResponse rejectedResponse = new MockHttpServletResponse();
+        // The first request is still running when the second arrives
+        MockFilterChain busyChain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/me/tasks"), rejectedResponse, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/me/tasks"), new MockHttpServletResponse(), busyChain);
+
+        // Assert
+        assertEquals(503, rejectedResponse.getStatus());
+        assertEquals("1", rejectedResponse.getHeader("Retry-After"));
+        assertTrue(rejectedResponse.getContentAsString().contains("Server busy"));
+        assertEquals(1, meterRegistry.get("todo.requests.rejected").counter().count());
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void givenRequestThatGoesAsync_whenFirstDispatchReturns_thenPermitIsHeldUntilCompletion() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me/tasks/export");
+        request.setAsyncSupported(true);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain(MediaType.APPLICATION_NDJSON_VALUE));
+        int inFlightWhileStreaming = filter.inFlight();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Assert
+        assertEquals(1, inFlightWhileStreaming);
+        assertEquals(0, filter.inFlight());
+    }
+
+    @Test
+    void givenEventStream_whenFirstDispatchReturns_thenPermitIsReleased() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me/tasks/stream");
+        request.setAsyncSupported(true);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), asyncChain(MediaType.TEXT_EVENT_STREAM_VALUE));
+
+        // Assert
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, filter.inFlight());
+    }
+
+    // Starts async processing the way Spring MVC does for a StreamingResponseBody or an SseEmitter
+    private static MockFilterChain asyncChain(String contentType) {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                request.startAsync(request, response);
+                response.setContentType(contentType);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,193 @@
+package org.mytodoapp.todo.smoke;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application started as a separate process (a native executable or {@code java -jar ...}) on free ports,
+ * with its output in a log file. {@link #start} returns once the health endpoint reports the application up,
+ * and {@link #startup()} is the time from launch until then; {@link #launch} and {@link #awaitReady} measure
+ * up to any other first success instead.
+ */
+final class ApplicationProcess implements AutoCloseable {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final HttpClient HEALTH_CLIENT = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private final Process process;
+    private final Path log;
+    private final int port;
+    private final int managementPort;
+    private final long launchedAt;
+    private Duration startup;
+
+    private ApplicationProcess(Process process, Path log, int port, int managementPort, long launchedAt) {
+        this.process = process;
+        this.log = log;
+        this.port = port;
+        this.managementPort = managementPort;
+        this.launchedAt = launchedAt;
+    }
+
+    /**
+     * Launches {@code command}, a whitespace-separated command line, with {@code environment} added to this
+     * process' environment, and waits at most {@code timeout} for its health endpoint to report it up.
+     */
+    static ApplicationProcess start(String command, Map<String, String> environment, Path log, Duration timeout)
+            throws IOException, InterruptedException {
+        ApplicationProcess application = launch(command, environment, log);
+        application.startup = application.awaitReady(timeout, ApplicationProcess::isUp);
+        return application;
+    }
+
+    /**
+     * Launches {@code command} like {@link #start} but returns right away, for callers with their own notion of ready.
+     */
+    static ApplicationProcess launch(String command, Map<String, String> environment, Path log) throws IOException {
+        int port = freePort();
+        int managementPort = freePort();
+        List<String> commandLine = new ArrayList<>(Arrays.asList(command.trim().split("\\s+")));
+        commandLine.add("--server.port=" + port);
+        commandLine.add("--management.server.port=" + managementPort);
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        ProcessBuilder builder = new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().putAll(environment);
+        long launchedAt = System.nanoTime();
+        return new ApplicationProcess(builder.start(), log, port, managementPort, launchedAt);
+    }
+
+    /**
+     * Polls {@code check} until it passes and returns the time since launch. A check that throws an
+     * {@link IOException} counts as not ready yet, as the ports are not listening until late in startup.
+     */
+    Duration awaitReady(Duration timeout, ReadinessCheck check) throws InterruptedException {
+        long deadline = launchedAt + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + "\n" + logTail());
+            }
+            try {
+                if (check.isReady(this)) {
+                    return Duration.ofNanos(System.nanoTime() - launchedAt);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        close();
+        throw new IllegalStateException("Application not ready after " + timeout + "\n" + logTail());
+    }
+
+    /**
+     * The settings the application reads from its environment, pointing it at {@code postgres}.
+     */
+    static Map<String, String> environment(EmbeddedPostgres postgres) {
+        return Map.of(
+                "DB_URL", postgres.getJdbcUrl("postgres", "postgres"),
+                "DB_USERNAME", "postgres",
+                "DB_PASSWORD", "",
+                "JWT_SECRET", "c21va2UtdGVzdC1vbmx5LXNlY3JldC1zbW9rZS10ZXN0LW9ubHktc2VjcmV0LTAxMjM0NTY3",
+                "SPRING_JPA_SHOW_SQL", "false"
+        );
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    Duration startup() {
+        return startup;
+    }
+
+    /**
+     * Resident set size of the process in kB, from {@code /proc} (Linux only).
+     */
+    long residentSetKb() {
+        return status("VmRSS");
+    }
+
+    /**
+     * Highest resident set size the process has reached so far, in kB (Linux only).
+     */
+    long peakResidentSetKb() {
+        return status("VmHWM");
+    }
+
+    private long status(String field) {
+        try {
+            return Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status")).stream()
+                    .filter(line -> line.startsWith(field + ":"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElseThrow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String logTail() {
+        try {
+            List<String> lines = Files.readAllLines(log);
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 40), lines.size()));
+        } catch (IOException e) {
+            return "(no log: " + e.getMessage() + ")";
+        }
+    }
+
+    /**
+     * Sends SIGTERM and waits at most {@code timeout} for the JVM or executable to exit, killing it after that.
+     * Returns the exit code.
+     */
+    int stop(Duration timeout) throws InterruptedException {
+        // SIGTERM first, so the graceful shutdown and what runs on exit are part of what the tests exercise
+        process.destroy();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        return process.exitValue();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        stop(Duration.ofSeconds(20));
+    }
+
+    private boolean isUp() throws IOException, InterruptedException {
+        URI health = URI.create("http://localhost:" + managementPort + "/actuator/health");
+        HttpRequest request = HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(1)).GET().build();
+        return HEALTH_CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    @FunctionalInterface
+    interface ReadinessCheck {
+
+        boolean isReady(ApplicationProcess application) throws IOException, InterruptedException;
+
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
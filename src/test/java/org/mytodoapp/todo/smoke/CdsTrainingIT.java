@@ -0,0 +1,78 @@
+package org.mytodoapp.todo.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The training run behind {@code mvn -Pcds verify}: extracts the packaged jar to {@code target/cds}, starts it
+ * there in the fast-startup profile against an embedded PostgreSQL, drives the auth, task and user endpoints,
+ * and stops it, at which point the JVM writes every class it loaded to {@code target/cds/application.jsa}.
+ * Instances started with {@code -XX:SharedArchiveFile} then map those classes instead of loading and verifying
+ * them again.
+ */
+class CdsTrainingIT {
+
+    @Test
+    void givenPackagedJar_whenTrainingOnTheRealEndpoints_thenTheArchiveIsWritten() throws Exception {
+        // Arrange
+        extract();
+        Files.deleteIfExists(StartupCommands.archive());
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            // The fast-startup profile leaves migrations to the deployment
+            Flyway.configure().dataSource(postgres.getPostgresDatabase()).locations("classpath:db/migration").load().migrate();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            Long userId = SmokeClient.seedUser(jdbcTemplate, "trainee", "USER");
+            SmokeClient.seedUser(jdbcTemplate, "admin", "ADMIN");
+
+            ApplicationProcess application = ApplicationProcess.start(StartupCommands.training(),
+                    ApplicationProcess.environment(postgres), Path.of("target", "smoke", "cds-training.log"),
+                    Duration.ofSeconds(120));
+            try {
+                // Act
+                train(new SmokeClient(application), userId);
+            } finally {
+                // Writing the archive happens on exit and takes a few seconds
+                application.stop(Duration.ofMinutes(2));
+            }
+        }
+
+        // Assert
+        assertTrue(Files.size(StartupCommands.archive()) > 0, "No archive at " + StartupCommands.archive());
+    }
+
+    private static void train(SmokeClient client, Long userId) throws Exception {
+        String register = """
+                {"username":"member","email":"member@example.com","password":"%s","confirmPassword":"%s"}
+                """.formatted(SmokeClient.PASSWORD, SmokeClient.PASSWORD);
+        assertEquals(201, client.send("POST", "/api/auth/register", register, null).statusCode());
+        JsonNode login = client.login(SmokeClient.email("trainee"));
+        String refresh = "{\"refreshToken\":\"" + login.at("/data/refreshToken").asText() + "\"}";
+        assertEquals(200, client.send("POST", "/api/auth/refresh", refresh, null).statusCode());
+        client.taskRoundTrip("/api/me/tasks", login.at("/data/accessToken").asText());
+
+        String adminToken = client.login(SmokeClient.email("admin")).at("/data/accessToken").asText();
+        client.taskRoundTrip("/api/users/" + userId + "/tasks", adminToken);
+        assertEquals(200, client.send("GET", "/api/users", null, adminToken).statusCode());
+        assertEquals(200, client.send("GET", "/api/users/" + userId, null, adminToken).statusCode());
+        assertEquals(400, client.send("POST", "/api/me/tasks", "{}", login.at("/data/accessToken").asText()).statusCode());
+    }
+
+    private static void extract() throws Exception {
+        Process extract = new ProcessBuilder(StartupCommands.java(), "-Djarmode=tools", "-jar",
+                StartupCommands.jar().toString(), "extract", "--destination", StartupCommands.cdsDirectory().toString(),
+                "--force")
+                .inheritIO()
+                .start();
+        assertEquals(0, extract.waitFor(), "Extracting " + StartupCommands.jar() + " failed");
+    }
+
+}
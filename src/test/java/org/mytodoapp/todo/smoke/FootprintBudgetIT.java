@@ -0,0 +1,113 @@
+package org.mytodoapp.todo.smoke;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the packaged jar in the low-footprint profile under {@code -Dfootprint.jvm-options}, runs a fixed
+ * workload over the auth, task and user endpoints, and fails when the highest resident set size the process
+ * reached (VmHWM) is above {@code -Dfootprint.budget-mb}. Runs in {@code mvn -Pfootprint verify}, where both
+ * come from the pom; run elsewhere, the test fails without them rather than measure another setup. Linux only,
+ * as the sizes are read from {@code /proc}.
+ */
+class FootprintBudgetIT {
+
+    private static final int USERS = 8;
+    private static final int TASKS_PER_USER = 500;
+    // Users who hold tasks but send no requests during the workload: 250,000 tasks in all
+    private static final int DORMANT_USERS = 492;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void givenLowFootprintProfile_whenRunningTheFixedWorkload_thenPeakResidentSetStaysWithinBudget() throws Exception {
+        // Arrange
+        long budgetMb = Long.parseLong(requiredProperty("footprint.budget-mb"));
+        String jvmOptions = requiredProperty("footprint.jvm-options");
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            // Seeded before startup, so anything the profile reads from every task at startup is measured with them
+            Flyway.configure().dataSource(postgres.getPostgresDatabase()).locations("classpath:db/migration").load().migrate();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+            List<Long> userIds = new ArrayList<>();
+            for (int n = 1; n <= USERS; n++) {
+                Long userId = SmokeClient.seedUser(jdbcTemplate, "member" + n, "USER");
+                SmokeClient.seedTasks(jdbcTemplate, userId, TASKS_PER_USER);
+                userIds.add(userId);
+            }
+            for (int n = 1; n <= DORMANT_USERS; n++) {
+                SmokeClient.seedTasks(jdbcTemplate, SmokeClient.seedUser(jdbcTemplate, "dormant" + n, "USER"), TASKS_PER_USER);
+            }
+            SmokeClient.seedUser(jdbcTemplate, "admin", "ADMIN");
+            Map<String, String> environment = new HashMap<>(ApplicationProcess.environment(postgres));
+            // Part of the profile: glibc otherwise gives every thread that allocates natively an arena of its own
+            environment.put("MALLOC_ARENA_MAX", "2");
+            try (ApplicationProcess application = ApplicationProcess.start(StartupCommands.lowFootprint(jvmOptions),
+                    environment, Path.of("target", "smoke", "footprint.log"), Duration.ofMinutes(2))) {
+                long startedKb = application.residentSetKb();
+
+                // Act
+                runWorkload(new SmokeClient(application), userIds);
+                long currentKb = application.residentSetKb();
+                long peakKb = application.peakResidentSetKb();
+
+                // Assert
+                System.out.printf("%nResident set: %d MB after startup, %d MB after the workload, peak %d MB, budget %d MB%n",
+                        startedKb / 1024, currentKb / 1024, peakKb / 1024, budgetMb);
+                assertTrue(peakKb / 1024 <= budgetMb, "Peak resident set of " + peakKb / 1024
+                        + " MB is over the budget of " + budgetMb + " MB; see " + Path.of("target", "smoke", "footprint.log"));
+            }
+        }
+    }
+
+    private static String requiredProperty(String name) {
+        String value = System.getProperty(name);
+        assertNotNull(value, "No -D" + name + "; run with mvn -Pfootprint verify or pass the value from the pom");
+        return value;
+    }
+
+    // Each member logs in and works through its own tasks while the admin lists the users and counts their
+    // tasks, all at once
+    private static void runWorkload(SmokeClient client, List<Long> userIds) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(USERS + 1)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int n = 1; n <= USERS; n++) {
+                String email = SmokeClient.email("member" + n);
+                workers.add(executor.submit(() -> {
+                    String token = client.login(email).at("/data/accessToken").asText();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        assertEquals(200, client.send("GET", "/api/me/tasks?limit=200", null, token).statusCode());
+                        client.taskRoundTrip("/api/me/tasks", token);
+                    }
+                    return null;
+                }));
+            }
+            workers.add(executor.submit(() -> {
+                String token = client.login(SmokeClient.email("admin")).at("/data/accessToken").asText();
+                for (int round = 0; round < ROUNDS; round++) {
+                    assertEquals(200, client.send("GET", "/api/users", null, token).statusCode());
+                    for (Long userId : userIds) {
+                        assertEquals(200, client.send("GET", "/api/users/" + userId + "/tasks/count", null, token).statusCode());
+                    }
+                }
+                return null;
+            }));
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.mytodoapp.todo.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the native executable against an embedded PostgreSQL and drives {@code AuthController} and
+ * {@code TaskController} over HTTP, so that a missing reflection or resource hint fails the build rather than
+ * the first request in production. Runs in the integration-test phase of {@code mvn -Pnative verify}.
+ * <p>
+ * {@code -Dsmoke.command} replaces the executable, e.g. {@code "java -jar target/toDo-0.0.1-SNAPSHOT.jar"}
+ * to run the same checks on the JVM.
+ */
+class NativeSmokeIT {
+
+    private static EmbeddedPostgres postgres;
+    private static ApplicationProcess application;
+    private static SmokeClient client;
+
+    @BeforeAll
+    static void start() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        String command = System.getProperty("smoke.command", "target/toDo");
+        application = ApplicationProcess.start(command, ApplicationProcess.environment(postgres),
+                Path.of("target", "smoke", "native-smoke.log"), Duration.ofSeconds(60));
+        client = new SmokeClient(application);
+        System.out.printf("%nStarted %s in %d ms, resident set %d MB%n", command,
+                application.startup().toMillis(), application.residentSetKb() / 1024);
+    }
+
+    @AfterAll
+    static void stop() throws Exception {
+        if (application != null) {
+            application.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void givenRunningApplication_whenRegisteringAndLoggingIn_thenTokensAreIssuedAndRefreshed() throws Exception {
+        // Arrange
+        String register = """
+                {"username":"smoke","email":"smoke@example.com","password":"%s","confirmPassword":"%s"}
+                """.formatted(SmokeClient.PASSWORD, SmokeClient.PASSWORD);
+
+        // Act
+        HttpResponse<String> registered = client.send("POST", "/api/auth/register", register, null);
+        JsonNode login = client.login("smoke@example.com");
+        HttpResponse<String> refreshed = client.send("POST", "/api/auth/refresh",
+                "{\"refreshToken\":\"" + login.at("/data/refreshToken").asText() + "\"}", null);
+
+        // Assert
+        assertEquals(201, registered.statusCode(), registered.body());
+        assertEquals("USER", login.at("/data/role").asText());
+        assertEquals(200, refreshed.statusCode(), refreshed.body());
+        assertFalse(client.json(refreshed).at("/data/accessToken").asText().isEmpty());
+        assertEquals(403, client.send("GET", "/api/me/tasks", null, "not.a.token").statusCode());
+    }
+
+    @Test
+    void givenAdmin_whenManagingAUsersTasks_thenCrudRoundTrips() throws Exception {
+        // Arrange
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        Long userId = SmokeClient.seedUser(jdbcTemplate, "owner", "USER");
+        SmokeClient.seedUser(jdbcTemplate, "admin", "ADMIN");
+        String token = client.login(SmokeClient.email("admin")).at("/data/accessToken").asText();
+
+        // Act & Assert
+        client.taskRoundTrip("/api/users/" + userId + "/tasks", token);
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.mytodoapp.todo.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP calls against an {@link ApplicationProcess}, plus the seeding and the task round trip that the process
+ * tests share. Any 5xx fails the test with the end of the application log.
+ */
+final class SmokeClient {
+
+    static final String PASSWORD = "Passw0rd!";
+
+    private static final String PASSWORD_HASH = new BCryptPasswordEncoder(10).encode(PASSWORD);
+
+    private final ApplicationProcess application;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    SmokeClient(ApplicationProcess application) {
+        this.application = application;
+    }
+
+    /**
+     * Inserts an account that logs in with {@link #PASSWORD}, straight into the database as admins cannot register.
+     */
+    static Long seedUser(JdbcTemplate jdbcTemplate, String name, String role) {
+        return jdbcTemplate.queryForObject("""
+                insert into users (name, email, password, role, enabled, account_non_expired,
+                                   account_non_locked, credentials_non_expired, task_count)
+                values (?, ?, ?, ?, true, true, true, true, 0)
+                returning id
+                """, Long.class, name, email(name), PASSWORD_HASH, role);
+    }
+
+    /**
+     * Inserts {@code count} tasks for {@code userId} and counts them on the user, as the task service would.
+     */
+    static void seedTasks(JdbcTemplate jdbcTemplate, Long userId, int count) {
+        jdbcTemplate.update("""
+                insert into tasks (id, title, description, user_id)
+                select nextval('tasks_id_seq'), 'Seeded task ' || g, 'Seeded for the smoke tests', ?
+                from generate_series(1, ?) g
+                """, userId, count);
+        jdbcTemplate.update("update users set task_count = task_count + ? where id = ?", count, userId);
+    }
+
+    static String email(String name) {
+        return name + "@example.com";
+    }
+
+    JsonNode login(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}", null);
+        assertEquals(200, response.statusCode(), response.body());
+        return json(response);
+    }
+
+    /**
+     * Creates, updates, reads, lists, searches, counts and deletes a task under {@code tasksPath}
+     * ({@code /api/me/tasks} or {@code /api/users/{userId}/tasks}), asserting each status on the way.
+     */
+    void taskRoundTrip(String tasksPath, String token) throws IOException, InterruptedException {
+        HttpResponse<String> created = send("POST", tasksPath, "{\"title\":\"Smoke\",\"description\":\"Round trip\"}", token);
+        assertEquals(201, created.statusCode(), created.body());
+        long taskId = json(created).at("/data/id").asLong();
+        String taskPath = tasksPath + "/" + taskId;
+
+        HttpResponse<String> updated = send("PUT", taskPath, "{\"title\":\"Smoke 2\",\"description\":\"Round trip\"}", token);
+        assertEquals(200, updated.statusCode(), updated.body());
+        HttpResponse<String> fetched = send("GET", taskPath, null, token);
+        assertEquals(200, fetched.statusCode(), fetched.body());
+        assertEquals("Smoke 2", json(fetched).at("/data/title").asText());
+        assertTrue(fetched.headers().firstValue("ETag").isPresent());
+        assertEquals(200, send("GET", tasksPath, null, token).statusCode());
+        assertEquals(200, send("GET", tasksPath + "/search?q=smoke", null, token).statusCode());
+        assertEquals(200, send("GET", tasksPath + "/count", null, token).statusCode());
+        assertEquals(204, send("DELETE", taskPath, null, token).statusCode());
+        assertEquals(404, send("GET", taskPath, null, token).statusCode());
+    }
+
+    JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    HttpResponse<String> send(String method, String path, String body, String token)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(application.uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 500) {
+            fail(method + " " + path + " failed with " + response.statusCode() + "\n" + application.logTail());
+        }
+        return response;
+    }
+
+}
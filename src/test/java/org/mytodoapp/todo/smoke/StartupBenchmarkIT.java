@@ -0,0 +1,88 @@
+package org.mytodoapp.todo.smoke;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time from launching the JVM to the first successful {@code POST /api/auth/login}, which is what a scale-out
+ * event waits for, for the executable jar as deployed so far and for the fast-startup profile without and with
+ * the class data sharing archive of {@link CdsTrainingIT}. The modes take turns for {@code -Dstartup.runs}
+ * rounds (default 3) against the same embedded PostgreSQL. Prints min/median/max per mode and writes them to
+ * {@code target/startup-report.json}. Runs after the training in {@code mvn -Pcds verify}.
+ */
+class StartupBenchmarkIT {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Test
+    void givenStartupModes_whenLaunchingUntilTheFirstLogin_thenReportTheirStartupTimes() throws Exception {
+        // Arrange
+        assertTrue(Files.exists(StartupCommands.archive()), "No archive at " + StartupCommands.archive() + ", run CdsTrainingIT first");
+        int runs = Integer.getInteger("startup.runs", 3);
+        Map<String, String> modes = new LinkedHashMap<>();
+        modes.put("jar", StartupCommands.executableJar());
+        modes.put("fast-startup", StartupCommands.fastStartup());
+        modes.put("fast-startup+cds", StartupCommands.fastStartupWithArchive());
+        Map<String, List<Long>> millis = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> millis.put(mode, new ArrayList<>()));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            // Migrated up front, so the default profile only validates like a replica of a running deployment
+            Flyway.configure().dataSource(postgres.getPostgresDatabase()).locations("classpath:db/migration").load().migrate();
+            SmokeClient.seedUser(new JdbcTemplate(postgres.getPostgresDatabase()), "startup", "USER");
+
+            // Act
+            for (int run = 0; run < runs; run++) {
+                for (Map.Entry<String, String> mode : modes.entrySet()) {
+                    Path log = Path.of("target", "smoke", "startup-" + mode.getKey() + ".log");
+                    millis.get(mode.getKey()).add(timeToFirstLogin(mode.getValue(), postgres, log).toMillis());
+                    assertFalse(Files.readString(log).contains("[cds"), "The JVM reported a CDS problem, see " + log);
+                }
+            }
+        }
+
+        // Assert
+        Map<String, StartupTimes> report = new LinkedHashMap<>();
+        System.out.printf("%n%-18s %9s %12s %9s%n", "mode", "min (ms)", "median (ms)", "max (ms)");
+        for (Map.Entry<String, List<Long>> mode : millis.entrySet()) {
+            List<Long> sorted = mode.getValue().stream().sorted().toList();
+            StartupTimes times = new StartupTimes(sorted.getFirst(), sorted.get(sorted.size() / 2), sorted.getLast());
+            report.put(mode.getKey(), times);
+            System.out.printf("%-18s %9d %12d %9d%n", mode.getKey(), times.min(), times.median(), times.max());
+            assertEquals(runs, sorted.size());
+        }
+        Path reportFile = Path.of(System.getProperty("startup.report", "target/startup-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(reportFile.toFile(), Map.of("runs", runs, "timeToFirstLoginMillis", report));
+    }
+
+    record StartupTimes(long min, long median, long max) {
+    }
+
+    private static Duration timeToFirstLogin(String command, EmbeddedPostgres postgres, Path log) throws Exception {
+        try (ApplicationProcess application = ApplicationProcess.launch(command, ApplicationProcess.environment(postgres), log)) {
+            SmokeClient client = new SmokeClient(application);
+            String login = "{\"email\":\"" + SmokeClient.email("startup") + "\",\"password\":\"" + SmokeClient.PASSWORD + "\"}";
+            return application.awaitReady(TIMEOUT, app -> {
+                HttpResponse<String> response = client.send("POST", "/api/auth/login", login, null);
+                return response.statusCode() == 200;
+            });
+        }
+    }
+
+}
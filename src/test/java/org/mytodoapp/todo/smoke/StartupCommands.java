@@ -0,0 +1,70 @@
+package org.mytodoapp.todo.smoke;
+
+import java.nio.file.Path;
+
+/**
+ * Command lines for the ways of starting the packaged application on the JVM that the startup and footprint
+ * tests use. The cds and footprint profiles point {@code startup.jar} at the packaged jar; {@code startup.cds-dir}
+ * is the directory that {@link CdsTrainingIT} extracts it to and writes the class data sharing archive into.
+ */
+final class StartupCommands {
+
+    static final String FAST_STARTUP_PROFILE = "-Dspring.profiles.active=fast-startup";
+
+    private StartupCommands() {
+    }
+
+    static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    static Path jar() {
+        return Path.of(System.getProperty("startup.jar", "target/toDo-0.0.1-SNAPSHOT.jar"));
+    }
+
+    static Path cdsDirectory() {
+        return Path.of(System.getProperty("startup.cds-dir", "target/cds"));
+    }
+
+    /**
+     * The application jar in the extracted layout, next to its {@code lib/}; CDS only archives classes loaded
+     * from plain jars on the class path, not from the jars nested in the executable jar.
+     */
+    static Path extractedJar() {
+        return cdsDirectory().resolve(jar().getFileName());
+    }
+
+    static Path archive() {
+        return cdsDirectory().resolve("application.jsa");
+    }
+
+    /**
+     * The executable jar as deployed so far: default profile, no archive.
+     */
+    static String executableJar() {
+        return java() + " -jar " + jar();
+    }
+
+    static String fastStartup() {
+        return java() + " " + FAST_STARTUP_PROFILE + " -jar " + extractedJar();
+    }
+
+    static String fastStartupWithArchive() {
+        return java() + " -XX:SharedArchiveFile=" + archive() + " " + FAST_STARTUP_PROFILE + " -jar " + extractedJar();
+    }
+
+    /**
+     * The executable jar in the low-footprint profile, under the JVM options that go with it.
+     */
+    static String lowFootprint(String jvmOptions) {
+        return java() + " " + jvmOptions + " -Dspring.profiles.active=low-footprint -jar " + jar();
+    }
+
+    /**
+     * The training run: the fast-startup command that also writes the loaded classes to the archive on exit.
+     */
+    static String training() {
+        return java() + " -XX:ArchiveClassesAtExit=" + archive() + " " + FAST_STARTUP_PROFILE + " -jar " + extractedJar();
+    }
+
+}
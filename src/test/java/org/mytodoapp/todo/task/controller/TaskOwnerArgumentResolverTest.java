@@ -0,0 +1,86 @@
+package org.mytodoapp.todo.task.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.security.model.CustomUserDetails;
+import org.mytodoapp.todo.user.entity.Role;
+import org.mytodoapp.todo.user.util.UserTestDataFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.DefaultDataBinderFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskOwnerArgumentResolverTest {
+
+    private TaskOwnerArgumentResolver resolver;
+    private MethodParameter ownerParameter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setup() throws Exception {
+        resolver = new TaskOwnerArgumentResolver();
+        ownerParameter = new MethodParameter(getClass().getDeclaredMethod("handler", Long.class), 0);
+        request = new MockHttpServletRequest();
+        CustomUserDetails principal = new CustomUserDetails(
+                UserTestDataFactory.createUser(7L, "member", "member@example.com", "secret", Role.USER));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenUserIdInPath_whenResolve_thenReturnPathUserId() throws Exception {
+        // Arrange
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", "42"));
+
+        // Act
+        Object userId = resolve();
+
+        // Assert
+        assertTrue(resolver.supportsParameter(ownerParameter));
+        assertEquals(42L, userId);
+    }
+
+    @Test
+    void givenNoUserIdInPath_whenResolve_thenReturnAuthenticatedUserId() throws Exception {
+        // Arrange
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of());
+
+        // Act
+        Object userId = resolve();
+
+        // Assert
+        assertEquals(7L, userId);
+    }
+
+    @Test
+    void givenMalformedUserIdInPath_whenResolve_thenThrowTypeMismatch() {
+        // Arrange
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", "abc"));
+
+        // Act & Assert
+        assertThrows(MethodArgumentTypeMismatchException.class, this::resolve);
+    }
+
+    private Object resolve() throws Exception {
+        return resolver.resolveArgument(ownerParameter, null, new ServletWebRequest(request), new DefaultDataBinderFactory(null));
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(@TaskOwner Long userId) {
+    }
+
+}
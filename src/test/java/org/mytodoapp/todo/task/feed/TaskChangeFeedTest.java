@@ -0,0 +1,229 @@
+package org.mytodoapp.todo.task.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskChangeFeedTest {
+
+    private TaskProperties taskProperties;
+    private ManualExecutor dispatcher;
+    private ExecutorService writer;
+    private TaskChangeFeed feed;
+
+    @BeforeEach
+    void setup() {
+        taskProperties = new TaskProperties();
+        taskProperties.getFeed().setBufferSize(3);
+        taskProperties.getFeed().setMaxConnectionsPerUser(2);
+        dispatcher = new ManualExecutor();
+        writer = Executors.newCachedThreadPool();
+        feed = new TaskChangeFeed(taskProperties, dispatcher, writer);
+    }
+
+    @AfterEach
+    void teardown() {
+        writer.shutdownNow();
+    }
+
+    @Test
+    void givenPendingDrains_whenTaskChanged_thenNoExtraDrainScheduled() {
+        // Arrange
+        feed.subscribe(1L);
+        feed.subscribe(1L);
+        feed.subscribe(2L);
+        dispatcher.tasks.clear();
+
+        // Act
+        feed.onTaskChanged(TaskChangedEvent.deleted(1L, 10L));
+        feed.onTaskChanged(TaskChangedEvent.deleted(1L, 11L));
+
+        // Assert
+        assertEquals(0, dispatcher.tasks.size());
+        assertEquals(2, feed.subscriberCount(1L));
+        assertEquals(1, feed.subscriberCount(2L));
+    }
+
+    @Test
+    void givenMoreConnectionsThanAllowed_whenSubscribe_thenOldestIsEvicted() {
+        // Act
+        feed.subscribe(1L);
+        feed.subscribe(1L);
+        feed.subscribe(1L);
+
+        // Assert
+        assertEquals(2, feed.subscriberCount(1L));
+    }
+
+    @Test
+    void givenSubscriberThatDoesNotDrain_whenBufferOverflows_thenSubscriberIsEvicted() {
+        // Arrange
+        feed.subscribe(1L);
+
+        // Act: "connected" plus two changes fill the buffer, the third change overflows it
+        feed.onTaskChanged(TaskChangedEvent.deleted(1L, 10L));
+        feed.onTaskChanged(TaskChangedEvent.deleted(1L, 11L));
+        assertEquals(1, feed.subscriberCount(1L));
+        feed.onTaskChanged(TaskChangedEvent.deleted(1L, 12L));
+
+        // Assert
+        assertEquals(0, feed.subscriberCount(1L));
+    }
+
+    @Test
+    void givenSubscribers_whenUserDeleted_thenAllConnectionsClosed() {
+        // Arrange
+        feed.subscribe(1L);
+        feed.subscribe(1L);
+
+        // Act
+        feed.onUserDeleted(new UserDeletedEvent(1L));
+
+        // Assert
+        assertEquals(0, feed.subscriberCount(1L));
+    }
+
+    @Test
+    void givenDrainRuns_whenTaskChanged_thenSubscriberKeepsReceiving() {
+        // Arrange
+        feed.subscribe(1L);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            dispatcher.runAll();
+            feed.onTaskChanged(TaskChangedEvent.deleted(1L, (long) i));
+        }
+
+        // Assert
+        assertEquals(1, feed.subscriberCount(1L));
+    }
+
+    @Test
+    void givenSubscriberWhoseSendBlocks_whenOtherUsersChangeTasks_thenTheyStillReceiveAndTheStalledOneIsEvicted()
+            throws Exception {
+        // Arrange: a single dispatch thread, which the stalled send would otherwise hold
+        taskProperties.getFeed().setSendTimeout(Duration.ofMillis(100));
+        ExecutorService singleDispatcher = Executors.newSingleThreadExecutor();
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch blockedSendStarted = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        // Handed out in subscription order: user 1 gets the blocking one
+        Queue<SseEmitter> emitters = new ArrayDeque<>(List.of(
+                new TestEmitter(() -> {
+                    blockedSendStarted.countDown();
+                    unblock.await();
+                }),
+                new TestEmitter(delivered::countDown)));
+        TaskChangeFeed feed = new TaskChangeFeed(taskProperties, singleDispatcher, writer) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return emitters.remove();
+            }
+        };
+
+        try {
+            feed.subscribe(1L);
+            assertTrue(blockedSendStarted.await(5, TimeUnit.SECONDS));
+            feed.subscribe(2L);
+
+            // Act
+            feed.onTaskChanged(TaskChangedEvent.deleted(2L, 10L));
+
+            // Assert: "connected" and the change both reach user 2 while user 1's write is still blocked
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            assertEquals(0, feed.subscriberCount(1L));
+            assertEquals(1, feed.subscriberCount(2L));
+        } finally {
+            unblock.countDown();
+            singleDispatcher.shutdownNow();
+        }
+    }
+
+    /** Calls back on every send instead of writing to a response. */
+    private static final class TestEmitter extends SseEmitter {
+
+        private final SendAction action;
+
+        TestEmitter(SendAction action) {
+            this.action = action;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                action.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+    }
+
+    private interface SendAction {
+        void run() throws InterruptedException;
+    }
+
+    /** Queues submitted work so tests decide when (and whether) the dispatcher runs it. */
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.mytodoapp.todo.task.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new TaskSearchIndex(new TaskProperties());
+        index.put(TaskTestDataFactory.createTaskResponseDto(1L, "Buy groceries", "milk, eggs and bread", 1L));
+        index.put(TaskTestDataFactory.createTaskResponseDto(2L, "Write report", "quarterly report for the grocery chain", 1L));
+        index.put(TaskTestDataFactory.createTaskResponseDto(3L, "Buy groceries", "for another user", 2L));
+    }
+
+    @Test
+    void givenTitleAndDescriptionMatches_whenSearch_thenRankTitleMatchFirst() {
+        // Act
+        List<TaskResponseDto> result = index.search(1L, "groceries", 10);
+
+        // Assert
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void givenPrefix_whenSearch_thenMatchLongerTerms() {
+        // Act
+        List<TaskResponseDto> result = index.search(1L, "groc", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(result));
+    }
+
+    @Test
+    void givenOtherUsersTasks_whenSearch_thenOnlyReturnOwnTasks() {
+        // Act
+        List<TaskResponseDto> result = index.search(2L, "buy", 10);
+
+        // Assert
+        assertEquals(List.of(3L), ids(result));
+    }
+
+    @Test
+    void givenUpdatedTask_whenSearch_thenUseNewTermsOnly() {
+        // Arrange
+        index.onTaskChanged(TaskChangedEvent.updated(
+                TaskTestDataFactory.createTaskResponseDto(1L, "Call plumber", "kitchen sink", 1L)));
+
+        // Act & Assert
+        assertEquals(List.of(2L), ids(index.search(1L, "groc", 10)));
+        assertEquals(List.of(1L), ids(index.search(1L, "plumb", 10)));
+    }
+
+    @Test
+    void givenDeletedTaskOrUser_whenSearch_thenNotReturned() {
+        // Arrange
+        index.onTaskChanged(TaskChangedEvent.deleted(1L, 2L));
+        index.onUserDeleted(new UserDeletedEvent(2L));
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(index.search(1L, "groc", 10)));
+        assertTrue(index.search(2L, "buy", 10).isEmpty());
+    }
+
+    @Test
+    void givenLimit_whenSearch_thenTruncateResults() {
+        // Act & Assert
+        assertEquals(1, index.search(1L, "groc", 1).size());
+    }
+
+    @Test
+    void givenLazyLoad_whenChangeBeforeAndAfterLoad_thenOnlyIndexLoadedUser() {
+        // Arrange
+        TaskProperties taskProperties = new TaskProperties();
+        taskProperties.getSearch().setLazyLoad(true);
+        TaskSearchIndex lazyIndex = new TaskSearchIndex(taskProperties);
+        lazyIndex.onTaskChanged(TaskChangedEvent.created(
+                TaskTestDataFactory.createTaskResponseDto(1L, "Buy groceries", "before the load", 1L)));
+
+        // Act
+        lazyIndex.load(1L, () -> List.of(
+                TaskTestDataFactory.createTaskResponseDto(2L, "Write report", "loaded from the database", 1L)));
+        lazyIndex.load(1L, () -> {
+            throw new AssertionError("Loaded twice");
+        });
+        lazyIndex.onTaskChanged(TaskChangedEvent.created(
+                TaskTestDataFactory.createTaskResponseDto(3L, "Report expenses", "after the load", 1L)));
+        lazyIndex.onTaskChanged(TaskChangedEvent.created(
+                TaskTestDataFactory.createTaskResponseDto(4L, "Report bug", "another user", 2L)));
+
+        // Assert
+        assertTrue(lazyIndex.search(1L, "groceries", 10).isEmpty());
+        assertEquals(List.of(2L, 3L), ids(lazyIndex.search(1L, "report", 10)).stream().sorted().toList());
+        assertTrue(lazyIndex.search(2L, "report", 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<TaskResponseDto> tasks) {
+        return tasks.stream().map(TaskResponseDto::getId).toList();
+    }
+
+}
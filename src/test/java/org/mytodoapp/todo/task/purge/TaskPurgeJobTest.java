@@ -0,0 +1,106 @@
+package org.mytodoapp.todo.task.purge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.mytodoapp.todo.user.repo.UserRepo;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskPurgeJobTest {
+
+    @Mock
+    private TaskRepo taskRepo;
+    @Mock
+    private UserRepo userRepo;
+    @Mock
+    private TaskShardDirectory taskShardDirectory;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskProperties taskProperties;
+    private TaskPurgeJob purgeJob;
+
+    @BeforeEach
+    void setup() {
+        taskProperties = new TaskProperties();
+        taskProperties.getPurge().setChunkSize(2);
+        taskProperties.getPurge().setMaxChunksPerRun(5);
+        taskProperties.getPurge().setPauseBetweenChunks(Duration.ZERO);
+        purgeJob = new TaskPurgeJob(taskRepo, userRepo, TaskShards.single(mock(DataSource.class)), taskShardDirectory,
+                transactionManager, taskProperties);
+    }
+
+    @Test
+    void givenDeletedTasksAndUsers_whenPurge_thenDeleteInChunksAndUsersLast() {
+        // Arrange
+        when(taskRepo.purgeDeleted(2)).thenReturn(2, 1);
+        when(userRepo.findDeletedIds(2)).thenReturn(List.of(7L));
+        when(taskRepo.purgeByUserId(7L, 2)).thenReturn(2, 0);
+
+        // Act
+        purgeJob.purge();
+
+        // Assert
+        InOrder inOrder = inOrder(taskRepo, userRepo);
+        inOrder.verify(taskRepo, times(2)).purgeDeleted(2);
+        inOrder.verify(taskRepo, times(2)).purgeByUserId(7L, 2);
+        inOrder.verify(userRepo).purgeById(7L);
+        verify(transactionManager, times(6)).commit(any());
+    }
+
+    @Test
+    void givenMoreChunksThanBudget_whenPurge_thenStopWithoutPurgingUsers() {
+        // Arrange
+        when(taskRepo.purgeDeleted(2)).thenReturn(2);
+
+        // Act
+        purgeJob.purge();
+
+        // Assert
+        verify(taskRepo, times(5)).purgeDeleted(2);
+        verifyNoInteractions(userRepo);
+    }
+
+    @Test
+    void givenUserWithRemainingTasks_whenBudgetRunsOut_thenKeepUserRow() {
+        // Arrange
+        when(taskRepo.purgeDeleted(2)).thenReturn(0);
+        when(userRepo.findDeletedIds(2)).thenReturn(List.of(7L, 8L));
+        when(taskRepo.purgeByUserId(7L, 2)).thenReturn(2);
+
+        // Act
+        purgeJob.purge();
+
+        // Assert
+        verify(taskRepo, times(4)).purgeByUserId(7L, 2);
+        verify(taskRepo, never()).purgeByUserId(eq(8L), anyInt());
+        verify(userRepo, never()).purgeById(any());
+    }
+
+    @Test
+    void givenPurgeDisabled_whenPurge_thenDoNothing() {
+        // Arrange
+        taskProperties.getPurge().setEnabled(false);
+
+        // Act
+        purgeJob.purge();
+
+        // Assert
+        verifyNoInteractions(taskRepo, userRepo, transactionManager);
+    }
+
+}
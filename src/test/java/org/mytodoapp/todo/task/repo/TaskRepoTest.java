@@ -0,0 +1,150 @@
+package org.mytodoapp.todo.task.repo;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.dto.TaskVersionUpdateDto;
+import org.mytodoapp.todo.user.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the task queries against a real PostgreSQL, migrated by Flyway, as the entity restriction is plain SQL.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskRepoTest {
+
+    // Stopped by the library's shutdown hook, after the Spring context has closed its pool
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private TaskRepo taskRepo;
+    @Autowired
+    private UserRepo userRepo;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long deletedTaskId;
+    private Long liveTaskId;
+    private Long deletedUsersTaskId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void setup() {
+        userId = insertUser("live");
+        deletedTaskId = insertTask(userId);
+        liveTaskId = insertTask(userId);
+        taskRepo.softDeleteByIdAndUserId(deletedTaskId, userId, Instant.now());
+
+        Long deletedUserId = insertUser("deleted");
+        deletedUsersTaskId = insertTask(deletedUserId);
+        userRepo.softDeleteById(deletedUserId, Instant.now());
+    }
+
+    @Test
+    void givenDeletedTask_whenReadingTheUsersTasks_thenItIsNotFound() {
+        // Act
+        List<TaskResponseDto> tasks = taskRepo.findDtosByUserId(userId);
+        List<TaskResponseDto> page = taskRepo.findDtoPageByUserId(userId, 0L, Limit.of(10));
+
+        // Assert
+        assertEquals(List.of(liveTaskId), tasks.stream().map(TaskResponseDto::getId).toList());
+        assertEquals(List.of(liveTaskId), page.stream().map(TaskResponseDto::getId).toList());
+        assertTrue(taskRepo.findDtoByIdAndUserId(deletedTaskId, userId).isEmpty());
+        assertTrue(taskRepo.findVersionByIdAndUserId(deletedTaskId, userId).isEmpty());
+        try (Stream<TaskResponseDto> export = taskRepo.streamByUserId(userId)) {
+            assertEquals(1, export.count());
+        }
+    }
+
+    @Test
+    void givenDeletedTask_whenChangingIt_thenNoRowMatches() {
+        // Act
+        Optional<Long> updated = taskRepo.updateByIdAndUserId(deletedTaskId, userId, "Changed", "Changed");
+        int deleted = taskRepo.softDeleteByIdAndUserId(deletedTaskId, userId, Instant.now());
+
+        // Assert
+        assertTrue(updated.isEmpty());
+        assertTrue(taskRepo.updateByIdAndUserIdAndVersion(deletedTaskId, userId, 0L, "Changed", "Changed").isEmpty());
+        assertEquals(0, deleted);
+        assertEquals("Task", jdbcTemplate.queryForObject("select title from tasks where id = ?", String.class, deletedTaskId));
+    }
+
+    @Test
+    void givenLiveTask_whenUpdating_thenReturnTheBumpedVersion() {
+        // Act
+        Optional<Long> version = taskRepo.updateByIdAndUserId(liveTaskId, userId, "Changed", "Changed");
+        Optional<TaskVersionUpdateDto> matching = taskRepo.updateByIdAndUserIdAndVersion(liveTaskId, userId, 1L, "Again", "Again");
+        Optional<TaskVersionUpdateDto> stale = taskRepo.updateByIdAndUserIdAndVersion(liveTaskId, userId, 1L, "Stale", "Stale");
+
+        // Assert
+        assertEquals(Optional.of(1L), version);
+        assertTrue(matching.orElseThrow().getUpdated());
+        assertEquals(2L, matching.orElseThrow().getVersion());
+        assertFalse(stale.orElseThrow().getUpdated());
+        assertEquals(2L, stale.orElseThrow().getVersion());
+        assertEquals("Again", jdbcTemplate.queryForObject("select title from tasks where id = ?", String.class, liveTaskId));
+    }
+
+    @Test
+    void givenDeletedUser_whenStreamingAllTasks_thenOnlyLiveUsersTasksAreReturned() {
+        // Act
+        List<Long> taskIds;
+        try (Stream<TaskResponseDto> tasks = taskRepo.streamAll()) {
+            taskIds = tasks.map(TaskResponseDto::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of(liveTaskId), taskIds);
+        assertFalse(taskIds.contains(deletedUsersTaskId));
+    }
+
+    private Long insertUser(String name) {
+        return jdbcTemplate.queryForObject("""
+                insert into users (name, email, password, role, enabled, account_non_expired,
+                                   account_non_locked, credentials_non_expired, task_count)
+                values (?, ?, 'secret', 'USER', true, true, true, true, 1)
+                returning id
+                """, Long.class, name, name + "@example.com");
+    }
+
+    private Long insertTask(Long userId) {
+        return jdbcTemplate.queryForObject("""
+                insert into tasks (id, title, description, user_id)
+                values (nextval('tasks_id_seq'), 'Task', 'Description', ?)
+                returning id
+                """, Long.class, userId);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.mytodoapp.todo.task.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.shared.util.CursorCodec;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskRequestDto;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangeType;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.task.mapper.TaskMapper;
+import org.mytodoapp.todo.task.repo.ReactiveTaskRepo;
+import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.mytodoapp.todo.user.repo.ReactiveUserRepo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveTaskServiceImplTest {
+
+    @Mock
+    private ReactiveTaskRepo taskRepo;
+    @Mock
+    private ReactiveUserRepo userRepo;
+    @Mock
+    private TaskMapper taskMapper;
+    @Spy
+    private TaskProperties taskProperties = new TaskProperties();
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveTaskServiceImpl taskService;
+
+    private TaskRequestDto requestDto;
+    private TaskResponseDto responseDto;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        requestDto = TaskTestDataFactory.createTaskRequestDto("testTitle", "testDesc");
+        responseDto = TaskTestDataFactory.createTaskResponseDto(1L, "testTitle", "testDesc", 1L);
+
+        // Runs the pipeline as is; commit and rollback belong to the R2DBC transaction manager
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void givenExistingUser_whenAddTask_thenInsertAndPublishCreated() {
+        // Arrange
+        when(userRepo.adjustTaskCount(1L, 1)).thenReturn(Mono.just(1L));
+        when(taskRepo.insert(1L, "testTitle", "testDesc")).thenReturn(Mono.just(responseDto));
+
+        // Act & Assert
+        StepVerifier.create(taskService.add(1L, requestDto))
+                .expectNext(responseDto)
+                .verifyComplete();
+
+        ArgumentCaptor<TaskChangedEvent> event = ArgumentCaptor.forClass(TaskChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(TaskChangeType.CREATED, event.getValue().type());
+    }
+
+    @Test
+    void givenNonExistingUser_whenAddTask_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(userRepo.adjustTaskCount(99L, 1)).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(taskService.add(99L, requestDto))
+                .expectError(RecordNotFoundException.class)
+                .verify();
+
+        verify(taskRepo, never()).insert(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenMatchingVersion_whenUpdateTask_thenReturnBumpedVersion() {
+        // Arrange
+        TaskResponseDto updated = TaskTestDataFactory.createTaskResponseDto(1L, "testTitle", "testDesc", 1L);
+        updated.setVersion(4L);
+        when(taskRepo.updateByIdAndUserIdAndVersion(1L, 1L, 3L, "testTitle", "testDesc")).thenReturn(Mono.just(4L));
+        when(taskMapper.toResponseDto(1L, 1L, 4L, requestDto)).thenReturn(updated);
+
+        // Act & Assert
+        StepVerifier.create(taskService.update(1L, 1L, requestDto, 3L))
+                .assertNext(result -> assertEquals(4L, result.getVersion()))
+                .verifyComplete();
+
+        verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdateTask_thenThrowPreconditionFailedException() {
+        // Arrange
+        when(taskRepo.updateByIdAndUserIdAndVersion(1L, 1L, 3L, "testTitle", "testDesc")).thenReturn(Mono.empty());
+        when(taskRepo.findVersionByIdAndUserId(1L, 1L)).thenReturn(Mono.just(5L));
+
+        // Act & Assert
+        StepVerifier.create(taskService.update(1L, 1L, requestDto, 3L))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenNonExistingTask_whenUpdateTask_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.updateByIdAndUserId(99L, 1L, "testTitle", "testDesc")).thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(taskService.update(1L, 99L, requestDto, null))
+                .expectError(RecordNotFoundException.class)
+                .verify();
+
+        verify(taskRepo, never()).findVersionByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void givenExistingTask_whenDeleteTask_thenDecrementCountAndPublishDeleted() {
+        // Arrange
+        when(taskRepo.softDeleteByIdAndUserId(1L, 1L)).thenReturn(Mono.just(1L));
+        when(userRepo.adjustTaskCount(1L, -1)).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(taskService.delete(1L, 1L))
+                .verifyComplete();
+
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1L, 1L));
+    }
+
+    @Test
+    void givenNonExistingTask_whenDeleteTask_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.softDeleteByIdAndUserId(99L, 1L)).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(taskService.delete(1L, 99L))
+                .expectError(RecordNotFoundException.class)
+                .verify();
+
+        verify(userRepo, never()).adjustTaskCount(any(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenTasks_whenFindAll_thenStreamEveryTask() {
+        // Arrange
+        TaskResponseDto second = TaskTestDataFactory.createTaskResponseDto(2L, "second", "testDesc", 1L);
+        when(taskRepo.streamByUserId(1L, taskProperties.getExport().getFlushEvery())).thenReturn(Flux.just(responseDto, second));
+
+        // Act & Assert
+        StepVerifier.create(taskService.findAllByUserId(1L))
+                .expectNext(responseDto, second)
+                .verifyComplete();
+    }
+
+    @Test
+    void givenMoreTasksThanLimit_whenFindPage_thenReturnPageWithNextCursor() {
+        // Arrange
+        TaskResponseDto second = TaskTestDataFactory.createTaskResponseDto(2L, "second", "testDesc", 1L);
+        TaskResponseDto third = TaskTestDataFactory.createTaskResponseDto(3L, "third", "testDesc", 1L);
+        when(taskRepo.findPageByUserId(1L, 0L, 3)).thenReturn(Flux.just(responseDto, second, third));
+
+        // Act & Assert
+        StepVerifier.create(taskService.findPageByUserId(1L, null, 2, false))
+                .assertNext(page -> {
+                    assertEquals(2, page.getItems().size());
+                    assertTrue(page.isHasNext());
+                    assertEquals(2L, cursorCodec.decode(page.getNextCursor()));
+                    assertNull(page.getTotalEstimate());
+                })
+                .verifyComplete();
+
+        verify(userRepo, never()).findTaskCountById(any());
+    }
+
+    @Test
+    void givenInvalidLimit_whenFindPage_thenSignalIllegalArgumentException() {
+        // Act & Assert
+        StepVerifier.create(taskService.findPageByUserId(1L, null, 0, false))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(taskRepo);
+    }
+
+}
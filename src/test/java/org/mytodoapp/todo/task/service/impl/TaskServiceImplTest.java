@@ -1,27 +1,60 @@
 package org.mytodoapp.todo.task.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
 import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.shared.util.CursorCodec;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskBatchOperationDto;
+import org.mytodoapp.todo.task.dto.TaskBatchOperationType;
+import org.mytodoapp.todo.task.dto.TaskBatchRequestDto;
+import org.mytodoapp.todo.task.dto.TaskBatchResponseDto;
+import org.mytodoapp.todo.task.dto.TaskCountDto;
+import org.mytodoapp.todo.task.dto.TaskPageDto;
 import org.mytodoapp.todo.task.dto.TaskRequestDto;
 import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.dto.TaskVersionUpdateDto;
 import org.mytodoapp.todo.task.entity.Task;
+import org.mytodoapp.todo.task.event.TaskChangeType;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.task.index.TaskSearchIndex;
 import org.mytodoapp.todo.task.mapper.TaskMapper;
 import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
 import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.mytodoapp.todo.task.writebehind.TaskWriteBuffer;
 import org.mytodoapp.todo.user.entity.Role;
 import org.mytodoapp.todo.user.entity.User;
 import org.mytodoapp.todo.user.repo.UserRepo;
 import org.mytodoapp.todo.user.util.UserTestDataFactory;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +66,24 @@ public class TaskServiceImplTest {
     private UserRepo userRepo;
     @Mock
     private TaskMapper taskMapper;
+    @Spy
+    private TaskProperties taskProperties = new TaskProperties();
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec();
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Mock
+    private TaskWriteBuffer taskWriteBuffer;
+    @Spy
+    private TaskShards taskShards = TaskShards.single(mock(DataSource.class));
+    @Mock
+    private TaskShardDirectory taskShardDirectory;
 
     @InjectMocks
     private TaskServiceImpl taskService;
@@ -66,7 +117,8 @@ public class TaskServiceImplTest {
     @Test
     void givenExistingUser_whenAddTask_thenSucceed() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepo.existsLiveById(user.getId())).thenReturn(true);
+        when(userRepo.getReferenceById(user.getId())).thenReturn(user);
         when(taskMapper.toEntity(requestDto)).thenReturn(task);
         when(taskMapper.toResponseDto(task)).thenReturn(responseDto);
 
@@ -79,23 +131,25 @@ public class TaskServiceImplTest {
         assertEquals(responseDto.getTitle(), result.getTitle());
         assertEquals(responseDto.getDescription(), result.getDescription());
 
-        verify(userRepo).findById(user.getId());
+        verify(userRepo).existsLiveById(user.getId());
         verify(taskMapper).toEntity(requestDto);
         verify(taskRepo).save(task);
+        verify(userRepo).adjustTaskCount(user.getId(), 1);
         verify(taskMapper).toResponseDto(task);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(responseDto));
     }
 
     @Test
     void givenNonExistingUser_whenAddTask_thenThrowRecordNotFoundException() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.empty());
+        when(userRepo.existsLiveById(user.getId())).thenReturn(false);
 
         // Act
         assertThrows(RecordNotFoundException.class,
                 () -> taskService.add(user.getId(), requestDto));
 
         // Assert
-        verify(userRepo).findById(user.getId());
+        verify(userRepo).existsLiveById(user.getId());
         verifyNoInteractions(taskMapper);
         verifyNoInteractions(taskRepo);
     }
@@ -108,107 +162,234 @@ public class TaskServiceImplTest {
 
         responseDto.setTitle(requestDto.getTitle());
         responseDto.setDescription(requestDto.getDescription());
+        responseDto.setVersion(2L);
 
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
-        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
-        when(taskMapper.toResponseDto(any(Task.class))).thenReturn(responseDto);
+        when(taskRepo.updateByIdAndUserId(task.getId(), user.getId(), requestDto.getTitle(), requestDto.getDescription()))
+                .thenReturn(Optional.of(2L));
+        when(taskMapper.toResponseDto(task.getId(), user.getId(), 2L, requestDto)).thenReturn(responseDto);
 
         // Act
-        TaskResponseDto result = taskService.update(user.getId(), task.getId(), requestDto);
+        TaskResponseDto result = taskService.update(user.getId(), task.getId(), requestDto, null);
 
         // Assert
         assertNotNull(result);
         assertEquals(responseDto.getUserId(), result.getUserId());
         assertEquals(responseDto.getTitle(), result.getTitle());
         assertEquals(responseDto.getDescription(), result.getDescription());
+        assertEquals(2L, result.getVersion());
 
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
-        verify(taskRepo).save(task);
-        verify(taskMapper).toResponseDto(task);
+        verify(taskRepo).updateByIdAndUserId(task.getId(), user.getId(), requestDto.getTitle(), requestDto.getDescription());
+        verify(taskMapper).toResponseDto(task.getId(), user.getId(), 2L, requestDto);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(responseDto));
+        verify(taskRepo, never()).findVersionByIdAndUserId(any(), any());
+        verifyNoInteractions(userRepo);
     }
 
     @Test
-    void givenValidTaskAndInvalidUser_whenUpdateTask_thenThrowRecordNotFoundException() {
+    void givenWriteBehindEnabled_whenUpdateTask_thenBufferWithoutWriting() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.empty());
+        responseDto.setVersion(4L);
+        when(taskWriteBuffer.buffer(user.getId(), task.getId(), requestDto)).thenReturn(Optional.of(responseDto));
 
         // Act
-        assertThrows(RecordNotFoundException.class,
-                () -> taskService.update(user.getId(), task.getId(), requestDto));
+        TaskResponseDto result = taskService.update(user.getId(), task.getId(), requestDto, null);
 
         // Assert
-        verify(userRepo).findById(user.getId());
-        verifyNoInteractions(taskRepo);
+        assertSame(responseDto, result);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(responseDto));
+        verify(taskWriteBuffer, never()).flush(any(), any());
+        verifyNoInteractions(taskRepo, taskMapper);
+    }
+
+    @Test
+    void givenMatchingVersion_whenUpdateTask_thenUpdateConditionallyWithoutReadingVersion() {
+        // Arrange
+        when(taskRepo.updateByIdAndUserIdAndVersion(task.getId(), user.getId(), 3L, requestDto.getTitle(), requestDto.getDescription()))
+                .thenReturn(Optional.of(new TaskVersionUpdateDto(4L, true)));
+        when(taskMapper.toResponseDto(task.getId(), user.getId(), 4L, requestDto)).thenReturn(responseDto);
+
+        // Act
+        taskService.update(user.getId(), task.getId(), requestDto, 3L);
+
+        // Assert
+        verify(taskMapper).toResponseDto(task.getId(), user.getId(), 4L, requestDto);
+        verify(taskWriteBuffer, never()).buffer(any(), any(), any());
+        verify(taskWriteBuffer).flush(user.getId(), task.getId());
+        verify(taskRepo, never()).updateByIdAndUserId(any(), any(), any(), any());
+        verify(taskRepo, never()).findVersionByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdateTask_thenThrowPreconditionFailedException() {
+        // Arrange
+        when(taskRepo.updateByIdAndUserIdAndVersion(task.getId(), user.getId(), 3L, requestDto.getTitle(), requestDto.getDescription()))
+                .thenReturn(Optional.of(new TaskVersionUpdateDto(5L, false)));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.update(user.getId(), task.getId(), requestDto, 3L));
+
+        verify(taskRepo, never()).findVersionByIdAndUserId(any(), any());
         verifyNoInteractions(taskMapper);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void givenInvalidTaskAndValidUser_whenUpdateTask_thenThrowRecordNotFoundException() {
+    void givenVersionOfMissingTask_whenUpdateTask_thenThrowRecordNotFoundException() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
-        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.empty());
+        when(taskRepo.updateByIdAndUserIdAndVersion(task.getId(), user.getId(), 3L, requestDto.getTitle(), requestDto.getDescription()))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class,
+                () -> taskService.update(user.getId(), task.getId(), requestDto, 3L));
+
+        verify(taskRepo, never()).findVersionByIdAndUserId(any(), any());
+        verifyNoInteractions(taskMapper);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenTaskNotOwnedOrMissing_whenUpdateTask_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.updateByIdAndUserId(task.getId(), user.getId(), requestDto.getTitle(), requestDto.getDescription()))
+                .thenReturn(Optional.empty());
 
         // Act
         assertThrows(RecordNotFoundException.class,
-                () -> taskService.update(user.getId(), task.getId(), requestDto));
+                () -> taskService.update(user.getId(), task.getId(), requestDto, null));
 
         // Assert
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
+        verify(taskRepo).updateByIdAndUserId(task.getId(), user.getId(), requestDto.getTitle(), requestDto.getDescription());
+        verifyNoInteractions(userRepo);
         verifyNoInteractions(taskMapper);
     }
 
     @Test
-    void givenValidTaskAndUser_whenDeleteTask_thenSucceed() {
+    void givenMergePatch_whenPatchTask_thenApplyOnlyPatchedFields() throws Exception {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+        task.setVersion(3L);
+        JsonNode patch = objectMapper.readTree("{\"title\":\"patchedTitle\"}");
         when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
+        doAnswer(invocation -> {
+            task.setVersion(4L);
+            return null;
+        }).when(taskRepo).flush();
+        when(taskMapper.toResponseDto(task)).thenReturn(responseDto);
 
         // Act
-        taskService.delete(user.getId(), task.getId());
+        TaskResponseDto result = taskService.patch(user.getId(), task.getId(), patch, 3L);
 
         // Assert
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
-        verify(taskRepo).delete(task);
+        assertEquals(responseDto, result);
+        verify(taskMapper).updateTaskFromDto(argThat(dto ->
+                dto.getTitle().equals("patchedTitle") && dto.getDescription().equals("testDesc")), eq(task));
+        verify(taskRepo).flush();
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(responseDto));
     }
 
     @Test
-    void givenValidTaskAndInvalidUser_whenDeleteTask_thenThrowRecordNotFoundException() {
+    void givenNoEffectiveChange_whenPatchTask_thenNoEventPublished() throws Exception {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.empty());
+        task.setVersion(3L);
+        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
+        when(taskMapper.toResponseDto(task)).thenReturn(responseDto);
 
         // Act
-        assertThrows(RecordNotFoundException.class,
-                () -> taskService.delete(user.getId(), task.getId()));
+        taskService.patch(user.getId(), task.getId(), objectMapper.readTree("{}"), null);
 
         // Assert
-        verify(userRepo).findById(user.getId());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void givenStaleVersion_whenPatchTask_thenThrowPreconditionFailedException() throws Exception {
+        // Arrange
+        task.setVersion(3L);
+        JsonNode patch = objectMapper.readTree("{\"title\":\"patchedTitle\"}");
+        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.patch(user.getId(), task.getId(), patch, 2L));
+
+        verify(taskRepo, never()).flush();
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void givenPatchRemovingRequiredField_whenPatchTask_thenThrowConstraintViolationException() throws Exception {
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"description\":null}");
+        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class,
+                () -> taskService.patch(user.getId(), task.getId(), patch, null));
+
+        verify(taskRepo, never()).flush();
+    }
+
+    @Test
+    void givenPatchWithUnknownField_whenPatchTask_thenThrowIllegalArgumentException() throws Exception {
+        // Arrange
+        JsonNode patch = objectMapper.readTree("{\"userId\":2}");
+        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.patch(user.getId(), task.getId(), patch, null));
+
+        verify(taskRepo, never()).flush();
+    }
+
+    @Test
+    void givenNonObjectPatch_whenPatchTask_thenThrowIllegalArgumentException() throws Exception {
+        // Arrange
+        JsonNode patch = objectMapper.readTree("[]");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.patch(user.getId(), task.getId(), patch, null));
+
         verifyNoInteractions(taskRepo);
     }
 
     @Test
-    void givenInvalidTaskAndValidUser_whenDeleteTask_thenThrowRecordNotFoundException() {
+    void givenValidTaskAndUser_whenDeleteTask_thenSoftDelete() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
-        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.empty());
+        when(taskRepo.softDeleteByIdAndUserId(eq(task.getId()), eq(user.getId()), any(Instant.class))).thenReturn(1);
+
+        // Act
+        taskService.delete(user.getId(), task.getId());
+
+        // Assert
+        verify(taskRepo).softDeleteByIdAndUserId(eq(task.getId()), eq(user.getId()), any(Instant.class));
+        verify(taskRepo, never()).findByIdAndUserId(any(), any());
+        verify(taskWriteBuffer).discard(user.getId(), task.getId());
+        verify(userRepo).adjustTaskCount(user.getId(), -1);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(user.getId(), task.getId()));
+        verifyNoMoreInteractions(userRepo);
+    }
+
+    @Test
+    void givenTaskNotOwnedOrMissing_whenDeleteTask_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.softDeleteByIdAndUserId(eq(task.getId()), eq(user.getId()), any(Instant.class))).thenReturn(0);
 
         // Act
         assertThrows(RecordNotFoundException.class,
                 () -> taskService.delete(user.getId(), task.getId()));
 
         // Assert
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
+        verify(taskRepo).softDeleteByIdAndUserId(eq(task.getId()), eq(user.getId()), any(Instant.class));
+        verifyNoInteractions(userRepo, eventPublisher);
     }
 
     @Test
     void givenValidUserAndTask_whenFindTaskByUserId_thenReturnDto() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
-        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(task));
-        when(taskMapper.toResponseDto(task)).thenReturn(responseDto);
+        when(taskRepo.findDtoByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(responseDto));
 
         // Act
         TaskResponseDto result = taskService.findTaskByUserId(user.getId(), task.getId());
@@ -218,44 +399,77 @@ public class TaskServiceImplTest {
         assertEquals(responseDto.getTitle(), result.getTitle());
         assertEquals(responseDto.getDescription(), result.getDescription());
 
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
-        verify(taskMapper).toResponseDto(task);
+        verify(taskRepo).findDtoByIdAndUserId(task.getId(), user.getId());
+        verifyNoInteractions(userRepo, taskMapper);
     }
 
     @Test
-    void givenInvalidUser_whenFindTaskByUserId_thenThrowRecordNotFoundException() {
+    void givenBufferedUpdate_whenFindTaskByUserId_thenReturnBufferedTask() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.empty());
+        when(taskWriteBuffer.find(user.getId(), task.getId())).thenReturn(Optional.of(responseDto));
+
+        // Act
+        TaskResponseDto result = taskService.findTaskByUserId(user.getId(), task.getId());
+
+        // Assert
+        assertSame(responseDto, result);
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenTaskNotOwnedOrMissing_whenFindTaskByUserId_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.findDtoByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class,
                 () -> taskService.findTaskByUserId(user.getId(), task.getId()));
 
-        verify(userRepo).findById(user.getId());
-        verifyNoInteractions(taskRepo, taskMapper);
+        verify(taskRepo).findDtoByIdAndUserId(task.getId(), user.getId());
+        verifyNoInteractions(userRepo, taskMapper);
+    }
+
+    @Test
+    void givenExistingTask_whenFindTaskVersion_thenReadOnlyTheVersion() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.of(3L));
+
+        // Act
+        Long version = taskService.findTaskVersionByUserId(user.getId(), task.getId());
+
+        // Assert
+        assertEquals(3L, version);
+        verify(taskRepo, never()).findDtoByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void givenBufferedUpdate_whenFindTaskVersion_thenReturnBufferedVersion() {
+        // Arrange
+        responseDto.setVersion(5L);
+        when(taskWriteBuffer.find(user.getId(), task.getId())).thenReturn(Optional.of(responseDto));
+
+        // Act
+        Long version = taskService.findTaskVersionByUserId(user.getId(), task.getId());
+
+        // Assert
+        assertEquals(5L, version);
+        verifyNoInteractions(taskRepo);
     }
 
     @Test
-    void givenValidUserAndInvalidTask_whenFindTaskByUserId_thenThrowRecordNotFoundException() {
+    void givenTaskNotOwnedOrMissing_whenFindTaskVersion_thenThrowRecordNotFoundException() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
-        when(taskRepo.findByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.empty());
+        when(taskRepo.findVersionByIdAndUserId(task.getId(), user.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class,
-                () -> taskService.findTaskByUserId(user.getId(), task.getId()));
-
-        verify(userRepo).findById(user.getId());
-        verify(taskRepo).findByIdAndUserId(task.getId(), user.getId());
-        verifyNoInteractions(taskMapper);
+                () -> taskService.findTaskVersionByUserId(user.getId(), task.getId()));
     }
 
     @Test
     void givenValidUser_whenFindAllByUserId_thenSucceed() {
         // Arrange
-        when(taskRepo.findTasksByUserId(user.getId())).thenReturn(List.of(task));
-        when(taskMapper.toResponseDto(task)).thenReturn(responseDto);
+        when(taskRepo.findDtosByUserId(user.getId())).thenReturn(List.of(responseDto));
 
         // Act
         List<TaskResponseDto> result = taskService.findAllByUserId(user.getId());
@@ -265,14 +479,14 @@ public class TaskServiceImplTest {
         assertEquals(1, result.size());
         assertEquals(responseDto.getTitle(), result.getFirst().getTitle());
 
-        verify(taskRepo).findTasksByUserId(user.getId());
-        verify(taskMapper).toResponseDto(task);
+        verify(taskRepo).findDtosByUserId(user.getId());
+        verifyNoInteractions(taskMapper);
     }
 
     @Test
     void givenNoTasks_whenFindAllByUserId_thenReturnEmptyList() {
         // Arrange
-        when(taskRepo.findTasksByUserId(user.getId())).thenReturn(List.of());
+        when(taskRepo.findDtosByUserId(user.getId())).thenReturn(List.of());
 
         // Act
         List<TaskResponseDto> result = taskService.findAllByUserId(user.getId());
@@ -281,8 +495,257 @@ public class TaskServiceImplTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(taskRepo).findTasksByUserId(user.getId());
+        verify(taskRepo).findDtosByUserId(user.getId());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void givenMoreTasksThanLimit_whenFindPageByUserId_thenReturnPageWithNextCursor() {
+        // Arrange
+        TaskResponseDto second = TaskTestDataFactory.createTaskResponseDto(2L, "secondTitle", "secondDesc", 1L);
+        when(taskRepo.findDtoPageByUserId(user.getId(), 0L, Limit.of(2)))
+                .thenReturn(List.of(responseDto, second));
+
+        // Act
+        TaskPageDto result = taskService.findPageByUserId(user.getId(), null, 1, false);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertTrue(result.isHasNext());
+        assertEquals(responseDto.getId(), cursorCodec.decode(result.getNextCursor()));
+        assertNull(result.getTotalEstimate());
+
+        verify(userRepo, never()).findTaskCountById(any());
         verifyNoInteractions(taskMapper);
     }
 
+    @Test
+    void givenCursorOnLastPage_whenFindPageByUserId_thenReturnPageWithoutNextCursor() {
+        // Arrange
+        String cursor = cursorCodec.encode(task.getId());
+        when(taskRepo.findDtoPageByUserId(user.getId(), task.getId(), Limit.of(51)))
+                .thenReturn(List.of());
+        when(userRepo.findTaskCountById(user.getId())).thenReturn(Optional.of(1L));
+
+        // Act
+        TaskPageDto result = taskService.findPageByUserId(user.getId(), cursor, null, true);
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        assertEquals(50, result.getLimit());
+        assertEquals(1L, result.getTotalEstimate());
+    }
+
+    @Test
+    void givenLimitAboveMax_whenFindPageByUserId_thenClampToMax() {
+        // Arrange
+        when(taskRepo.findDtoPageByUserId(user.getId(), 0L, Limit.of(201)))
+                .thenReturn(List.of());
+
+        // Act
+        TaskPageDto result = taskService.findPageByUserId(user.getId(), null, 10_000, false);
+
+        // Assert
+        assertEquals(200, result.getLimit());
+    }
+
+    @Test
+    void givenInvalidCursor_whenFindPageByUserId_thenThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.findPageByUserId(user.getId(), "not-a-cursor", null, false));
+
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenTasks_whenExportByUserId_thenWriteOneJsonObjectPerLine() throws IOException {
+        // Arrange
+        TaskResponseDto second = TaskTestDataFactory.createTaskResponseDto(2L, "secondTitle", "secondDesc", 1L);
+        when(taskRepo.streamByUserId(user.getId())).thenReturn(Stream.of(responseDto, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        taskService.exportByUserId(user.getId(), out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(responseDto.getTitle(), objectMapper.readValue(lines[0], TaskResponseDto.class).getTitle());
+        assertEquals(second.getId(), objectMapper.readValue(lines[1], TaskResponseDto.class).getId());
+
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void givenMixedOperations_whenApplyBatch_thenReportPerItemResults() {
+        // Arrange
+        TaskBatchRequestDto batch = TaskTestDataFactory.createTaskBatchRequestDto(List.of(
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.CREATE, null, "newTitle", "newDesc"),
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.UPDATE, 1L, "updatedTitle", "updatedDesc"),
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.DELETE, 99L, null, null)
+        ));
+        when(userRepo.existsLiveById(user.getId())).thenReturn(true);
+        when(userRepo.getReferenceById(user.getId())).thenReturn(user);
+        when(taskRepo.findByUserIdAndIdIn(user.getId(), List.of(1L, 99L))).thenReturn(List.of(task));
+        when(taskMapper.toResponseDto(any(Task.class))).thenReturn(responseDto);
+
+        // Act
+        TaskBatchResponseDto result = taskService.applyBatch(user.getId(), batch);
+
+        // Assert
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(201, result.getResults().get(0).getStatus());
+        assertEquals(200, result.getResults().get(1).getStatus());
+        assertEquals(404, result.getResults().get(2).getStatus());
+        assertEquals("updatedTitle", task.getTitle());
+
+        verify(userRepo).existsLiveById(user.getId());
+        verify(taskRepo).saveAll(argThat(tasks -> tasks.iterator().next().getTitle().equals("newTitle")));
+        verify(taskRepo).deleteAll(List.of());
+        verify(userRepo).adjustTaskCount(user.getId(), 1);
+    }
+
+    @Test
+    void givenUpdateThenDeleteOfSameTask_whenApplyBatch_thenDeleteAndRejectLaterOperations() {
+        // Arrange
+        TaskBatchRequestDto batch = TaskTestDataFactory.createTaskBatchRequestDto(List.of(
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.DELETE, 1L, null, null),
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.UPDATE, 1L, "title", "desc")
+        ));
+        when(userRepo.existsLiveById(user.getId())).thenReturn(true);
+        when(userRepo.getReferenceById(user.getId())).thenReturn(user);
+        when(taskRepo.findByUserIdAndIdIn(user.getId(), List.of(1L))).thenReturn(List.of(task));
+
+        // Act
+        TaskBatchResponseDto result = taskService.applyBatch(user.getId(), batch);
+
+        // Assert
+        assertEquals(204, result.getResults().get(0).getStatus());
+        assertEquals(404, result.getResults().get(1).getStatus());
+        verify(taskRepo).deleteAll(List.of(task));
+        verify(userRepo).adjustTaskCount(user.getId(), -1);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(user.getId(), task.getId()));
+    }
+
+    @Test
+    void givenInvalidCreate_whenApplyBatch_thenReportBadRequestWithoutSaving() {
+        // Arrange
+        TaskBatchRequestDto batch = TaskTestDataFactory.createTaskBatchRequestDto(List.of(
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.CREATE, null, " ", "desc")
+        ));
+        when(userRepo.existsLiveById(user.getId())).thenReturn(true);
+        when(userRepo.getReferenceById(user.getId())).thenReturn(user);
+
+        // Act
+        TaskBatchResponseDto result = taskService.applyBatch(user.getId(), batch);
+
+        // Assert
+        assertEquals(0, result.getSucceeded());
+        assertEquals(400, result.getResults().getFirst().getStatus());
+        verify(taskRepo).saveAll(List.of());
+        verify(taskRepo, never()).findByUserIdAndIdIn(any(), anyList());
+        verify(userRepo, never()).adjustTaskCount(any(), anyLong());
+    }
+
+    @Test
+    void givenNonExistingUser_whenApplyBatch_thenThrowRecordNotFoundException() {
+        // Arrange
+        TaskBatchRequestDto batch = TaskTestDataFactory.createTaskBatchRequestDto(List.of(
+                TaskTestDataFactory.createTaskBatchOperationDto(TaskBatchOperationType.DELETE, 1L, null, null)
+        ));
+        when(userRepo.existsLiveById(user.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class,
+                () -> taskService.applyBatch(user.getId(), batch));
+
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenExistingUser_whenCountByUserId_thenReturnStoredCounter() {
+        // Arrange
+        when(userRepo.findTaskCountById(user.getId())).thenReturn(Optional.of(3L));
+
+        // Act
+        TaskCountDto result = taskService.countByUserId(user.getId());
+
+        // Assert
+        assertEquals(user.getId(), result.getUserId());
+        assertEquals(3L, result.getTaskCount());
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenNonExistingUser_whenCountByUserId_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(userRepo.findTaskCountById(user.getId())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class,
+                () -> taskService.countByUserId(user.getId()));
+    }
+
+    @Test
+    void givenUsers_whenFindAllCounts_thenReturnStoredCounters() {
+        // Arrange
+        List<TaskCountDto> counts = List.of(new TaskCountDto(1L, 2L), new TaskCountDto(2L, 0L));
+        when(userRepo.findTaskCounts()).thenReturn(counts);
+
+        // Act
+        List<TaskCountDto> result = taskService.findAllCounts();
+
+        // Assert
+        assertEquals(counts, result);
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenQuery_whenSearch_thenDelegateToIndexWithDefaultLimit() {
+        // Arrange
+        when(taskSearchIndex.search(user.getId(), "test", 20)).thenReturn(List.of(responseDto));
+
+        // Act
+        List<TaskResponseDto> result = taskService.search(user.getId(), "test", null);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(taskSearchIndex).search(user.getId(), "test", 20);
+        verifyNoInteractions(taskRepo);
+    }
+
+    @Test
+    void givenLazyLoad_whenSearch_thenLoadUserTasksBeforeSearching() {
+        // Arrange
+        taskProperties.getSearch().setLazyLoad(true);
+        when(taskRepo.findDtosByUserId(user.getId())).thenReturn(List.of(responseDto));
+        doAnswer(invocation -> {
+            assertEquals(List.of(responseDto), invocation.<Supplier<List<TaskResponseDto>>>getArgument(1).get());
+            return null;
+        }).when(taskSearchIndex).load(eq(user.getId()), any());
+        when(taskSearchIndex.search(user.getId(), "test", 20)).thenReturn(List.of(responseDto));
+
+        // Act
+        List<TaskResponseDto> result = taskService.search(user.getId(), "test", null);
+
+        // Assert
+        assertEquals(List.of(responseDto), result);
+        InOrder inOrder = inOrder(taskSearchIndex);
+        inOrder.verify(taskSearchIndex).load(eq(user.getId()), any());
+        inOrder.verify(taskSearchIndex).search(user.getId(), "test", 20);
+    }
+
+    @Test
+    void givenBlankQuery_whenSearch_thenThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.search(user.getId(), " ", null));
+
+        verifyNoInteractions(taskSearchIndex);
+    }
+
 }
@@ -0,0 +1,91 @@
+package org.mytodoapp.todo.task.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mytodoapp.todo.shared.exception.DuplicateResourceException;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskShardMoveDto;
+import org.mytodoapp.todo.task.writebehind.TaskWriteBuffer;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskShardRebalancerTest {
+
+    @Mock
+    private TaskShardDirectory directory;
+    @Mock
+    private TaskWriteBuffer taskWriteBuffer;
+
+    private TaskShards taskShards;
+    private TaskShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setup() {
+        taskShards = new TaskShards(List.of(mock(DataSource.class), mock(DataSource.class)));
+        rebalancer = new TaskShardRebalancer(taskShards, directory, taskWriteBuffer, new TaskProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskShards.close();
+    }
+
+    @Test
+    void givenUserNotPlacedYet_whenMove_thenThrowRecordNotFoundWithoutPlacingThem() {
+        // Arrange
+        when(directory.isLiveUser(1L)).thenReturn(true);
+        when(directory.findPlacement(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class, () -> rebalancer.move(1L, 1));
+
+        verify(directory, never()).lookupOrAssign(any());
+        verify(directory, never()).provisionOwner(anyInt(), any());
+        verify(directory, never()).assign(any(), anyInt());
+    }
+
+    @Test
+    void givenUserBeingMoved_whenMovingThemAgain_thenRejectWhileOtherUsersStillMove() throws Exception {
+        // Arrange
+        CountDownLatch copying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(directory.isLiveUser(anyLong())).thenReturn(true);
+        when(directory.findPlacement(1L)).thenReturn(Optional.of(0));
+        when(directory.findPlacement(2L)).thenReturn(Optional.of(1));
+        doAnswer(invocation -> {
+            copying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("Source shard went away");
+        }).when(directory).provisionOwner(1, 1L);
+        CompletableFuture<TaskShardMoveDto> firstMove = CompletableFuture.supplyAsync(() -> rebalancer.move(1L, 1));
+        assertTrue(copying.await(5, TimeUnit.SECONDS));
+
+        // Act
+        assertThrows(DuplicateResourceException.class, () -> rebalancer.move(1L, 1));
+        TaskShardMoveDto otherUser = rebalancer.move(2L, 1);
+        release.countDown();
+
+        // Assert
+        assertEquals(1, otherUser.getToShard());
+        assertThrows(ExecutionException.class, () -> firstMove.get(5, TimeUnit.SECONDS));
+        // The failed move no longer counts as running
+        assertEquals(0, rebalancer.move(1L, 0).getToShard());
+    }
+
+}
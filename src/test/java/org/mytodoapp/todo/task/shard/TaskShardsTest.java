@@ -0,0 +1,122 @@
+package org.mytodoapp.todo.task.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TaskShardsTest {
+
+    private final TaskShards threeShards = shards(3);
+
+    @AfterEach
+    void tearDown() {
+        threeShards.close();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void givenAnotherShard_whenPlacingUsers_thenOnlyUsersMovingToTheNewShardMove() {
+        // Arrange
+        TaskShards fourShards = shards(4);
+
+        // Act
+        List<Long> moved = IntStream.rangeClosed(1, 10_000)
+                .mapToObj(Long::valueOf)
+                .filter(userId -> threeShards.shardFor(userId) != fourShards.shardFor(userId))
+                .toList();
+
+        // Assert
+        assertTrue(moved.stream().allMatch(userId -> fourShards.shardFor(userId) == 3));
+        // About a quarter of the users, as the hash promises, and nowhere near a full reshuffle
+        assertTrue(moved.size() > 2_000 && moved.size() < 3_000, moved.size() + " users moved");
+        fourShards.close();
+    }
+
+    @Test
+    void givenSequentialUserIds_whenPlacingUsers_thenSpreadEvenly() {
+        // Arrange
+        int[] users = new int[3];
+
+        // Act
+        IntStream.rangeClosed(1, 30_000).forEach(userId -> users[threeShards.shardFor((long) userId)]++);
+
+        // Assert
+        for (int count : users) {
+            assertTrue(count > 9_000 && count < 11_000, count + " users on one shard");
+        }
+    }
+
+    @Test
+    void givenSameUser_whenPlacingTwice_thenSameShard() {
+        // Act & Assert
+        assertEquals(threeShards.shardFor(42L), shards(3).shardFor(42L));
+        assertEquals(0, TaskShards.jumpHash(42L, 1));
+    }
+
+    @Test
+    void givenBoundShard_whenBindingClosed_thenPreviousShardRestored() {
+        // Act
+        try (TaskShards.Binding outer = threeShards.bind(2)) {
+            try (TaskShards.Binding inner = threeShards.bind(1)) {
+                assertEquals(1, TaskShardContext.current());
+            }
+
+            // Assert
+            assertEquals(2, TaskShardContext.current());
+        }
+        assertNull(TaskShardContext.current());
+    }
+
+    @Test
+    void givenActiveTransaction_whenBindingAnotherShard_thenThrowIllegalStateException() {
+        // Arrange
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> threeShards.bind(1));
+        try (TaskShards.Binding same = threeShards.bind(TaskShards.HOME)) {
+            assertEquals(TaskShards.HOME, TaskShardContext.current());
+        }
+    }
+
+    @Test
+    void givenUnknownShard_whenBinding_thenThrowIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> threeShards.bind(3));
+    }
+
+    @Test
+    void givenSeveralShards_whenFanOut_thenRunEachQueryOnItsShardInShardOrder() {
+        // Act
+        List<String> results = threeShards.fanOut(shard -> shard + ":" + TaskShardContext.current());
+
+        // Assert
+        assertEquals(List.of("0:0", "1:1", "2:2"), results);
+        assertNull(TaskShardContext.current());
+    }
+
+    @Test
+    void givenFailingShard_whenFanOut_thenRethrowItsException() {
+        // Act & Assert
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> threeShards.fanOut(shard -> {
+            if (shard == 1) {
+                throw new IllegalStateException("shard 1 down");
+            }
+            return shard;
+        }));
+        assertEquals("shard 1 down", thrown.getMessage());
+    }
+
+    private static TaskShards shards(int count) {
+        return new TaskShards(Collections.nCopies(count, mock(DataSource.class)));
+    }
+
+}
@@ -1,10 +1,15 @@
 package org.mytodoapp.todo.task.util;
 
+import org.mytodoapp.todo.task.dto.TaskBatchOperationDto;
+import org.mytodoapp.todo.task.dto.TaskBatchOperationType;
+import org.mytodoapp.todo.task.dto.TaskBatchRequestDto;
 import org.mytodoapp.todo.task.dto.TaskRequestDto;
 import org.mytodoapp.todo.task.dto.TaskResponseDto;
 import org.mytodoapp.todo.task.entity.Task;
 import org.mytodoapp.todo.user.entity.User;
 
+import java.util.List;
+
 public class TaskTestDataFactory {
 
     public static Task createTask(Long id, String title, String desc, User user) {
@@ -32,4 +37,19 @@ public class TaskTestDataFactory {
                 .build();
     }
 
+    public static TaskBatchOperationDto createTaskBatchOperationDto(TaskBatchOperationType type, Long taskId, String title, String desc) {
+        return TaskBatchOperationDto.builder()
+                .type(type)
+                .taskId(taskId)
+                .title(title)
+                .description(desc)
+                .build();
+    }
+
+    public static TaskBatchRequestDto createTaskBatchRequestDto(List<TaskBatchOperationDto> operations) {
+        return TaskBatchRequestDto.builder()
+                .operations(operations)
+                .build();
+    }
+
 }
@@ -0,0 +1,87 @@
+package org.mytodoapp.todo.task.version;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mytodoapp.todo.shared.exception.PreconditionFailedException;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.event.TaskChangedEvent;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskVersionTrackerTest {
+
+    private TaskVersionTracker tracker;
+
+    @BeforeEach
+    void setup() {
+        tracker = new TaskVersionTracker();
+    }
+
+    @Test
+    void givenNoChanges_whenEtag_thenStableAndMatching() {
+        // Act
+        String etag = tracker.etag(1L);
+
+        // Assert
+        assertEquals(etag, tracker.etag(1L));
+        assertTrue(tracker.matches(etag, etag));
+        assertTrue(tracker.matches("\"other\", W/" + etag, etag));
+        assertTrue(tracker.matches("*", etag));
+        assertFalse(tracker.matches(null, etag));
+    }
+
+    @Test
+    void givenTaskChange_whenEtag_thenOnlyThatUsersEtagChanges() {
+        // Arrange
+        String before = tracker.etag(1L);
+        String otherUser = tracker.etag(2L);
+
+        // Act
+        tracker.onTaskChanged(TaskChangedEvent.deleted(1L, 10L));
+
+        // Assert
+        assertFalse(tracker.matches(before, tracker.etag(1L)));
+        assertTrue(tracker.matches(otherUser, tracker.etag(2L)));
+        assertEquals(1L, tracker.currentVersion(1L));
+    }
+
+    @Test
+    void givenUserDeleted_whenEtag_thenEtagChanges() {
+        // Arrange
+        String before = tracker.etag(1L);
+
+        // Act
+        tracker.onUserDeleted(new UserDeletedEvent(1L));
+
+        // Assert
+        assertFalse(tracker.matches(before, tracker.etag(1L)));
+    }
+
+    @Test
+    void givenTaskEtag_whenExpectedVersion_thenRoundTrips() {
+        // Arrange
+        String etag = tracker.taskEtag(TaskResponseDto.builder().id(1L).version(7L).build());
+
+        // Act & Assert
+        assertEquals("\"7\"", etag);
+        assertEquals(7L, tracker.expectedVersion(etag));
+        assertNull(tracker.expectedVersion(null));
+        assertNull(tracker.expectedVersion("*"));
+    }
+
+    @Test
+    void givenWeakOrMalformedTag_whenExpectedVersion_thenThrowPreconditionFailedException() {
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> tracker.expectedVersion("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> tracker.expectedVersion("\"abc\""));
+        assertThrows(PreconditionFailedException.class, () -> tracker.expectedVersion("\"1\", \"2\""));
+    }
+
+    @Test
+    void givenNewTracker_whenEtag_thenDoesNotMatchPreviousProcess() {
+        // Assert
+        assertNotEquals(tracker.etag(1L), new TaskVersionTracker().etag(1L));
+    }
+
+}
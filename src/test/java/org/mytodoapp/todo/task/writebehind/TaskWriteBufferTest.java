@@ -0,0 +1,223 @@
+package org.mytodoapp.todo.task.writebehind;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mytodoapp.todo.shared.exception.RecordNotFoundException;
+import org.mytodoapp.todo.task.config.TaskProperties;
+import org.mytodoapp.todo.task.dto.TaskResponseDto;
+import org.mytodoapp.todo.task.repo.TaskRepo;
+import org.mytodoapp.todo.task.shard.TaskShardDirectory;
+import org.mytodoapp.todo.task.shard.TaskShards;
+import org.mytodoapp.todo.task.util.TaskTestDataFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskWriteBufferTest {
+
+    @Mock
+    private TaskRepo taskRepo;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TaskShardDirectory taskShardDirectory;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskProperties taskProperties;
+    private TaskWriteBuffer buffer;
+    // One entry per JDBC batch, holding the parameters of each of its statements
+    private final List<List<List<Object>>> batches = new ArrayList<>();
+    private boolean failNextBatch;
+
+    @BeforeEach
+    void setup() {
+        taskProperties = new TaskProperties();
+        taskProperties.getWriteBehind().setEnabled(true);
+        taskProperties.getWriteBehind().setQuietPeriod(Duration.ZERO);
+        taskProperties.getWriteBehind().setMaxPendingTasks(2);
+        buffer = new TaskWriteBuffer(taskRepo, jdbcTemplate, TaskShards.single(mock(DataSource.class)), taskShardDirectory,
+                transactionManager, taskProperties);
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(this::recordBatch);
+    }
+
+    @Test
+    void givenSuccessiveUpdates_whenFlushDue_thenWriteOnceWithLatestValues() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(10L, 1L)).thenReturn(Optional.of(3L));
+
+        // Act
+        TaskResponseDto first = buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d")).orElseThrow();
+        TaskResponseDto second = buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("ab", "d")).orElseThrow();
+        TaskResponseDto third = buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("abc", "d")).orElseThrow();
+        buffer.flushDue();
+
+        // Assert
+        assertEquals(List.of(4L, 5L, 6L), List.of(first.getVersion(), second.getVersion(), third.getVersion()));
+        verify(taskRepo, times(1)).findVersionByIdAndUserId(10L, 1L);
+        assertEquals(List.of(List.of(List.of("abc", "d", 3L, 10L, 1L))), batches);
+        verify(transactionManager).commit(any());
+        assertEquals(0, buffer.pendingCount());
+        assertFalse(buffer.hasPending(1L));
+    }
+
+    @Test
+    void givenBufferedUpdate_whenFind_thenReturnPendingValue() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(10L, 1L)).thenReturn(Optional.of(0L));
+        buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("pending", "d"));
+        TaskResponseDto stored = TaskTestDataFactory.createTaskResponseDto(10L, "stored", "d", 1L);
+        TaskResponseDto other = TaskTestDataFactory.createTaskResponseDto(11L, "other", "d", 1L);
+
+        // Act
+        Optional<TaskResponseDto> found = buffer.find(1L, 10L);
+        List<TaskResponseDto> overlaid = buffer.overlay(1L, List.of(stored, other));
+
+        // Assert
+        assertTrue(buffer.hasPending(1L));
+        assertFalse(buffer.hasPending(2L));
+        assertEquals("pending", found.orElseThrow().getTitle());
+        assertEquals(List.of("pending", "other"), overlaid.stream().map(TaskResponseDto::getTitle).toList());
+        assertTrue(buffer.find(2L, 10L).isEmpty());
+    }
+
+    @Test
+    void givenTaskNotOwnedOrMissing_whenBuffer_thenThrowRecordNotFoundException() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(10L, 2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class,
+                () -> buffer.buffer(2L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d")));
+        assertEquals(0, buffer.pendingCount());
+    }
+
+    @Test
+    void givenFullBuffer_whenBufferNewTask_thenReturnEmptyButKeepCoalescing() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(anyLong(), eq(1L))).thenReturn(Optional.of(0L));
+        buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+        buffer.buffer(1L, 11L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+
+        // Act
+        Optional<TaskResponseDto> overflow = buffer.buffer(1L, 12L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+        Optional<TaskResponseDto> coalesced = buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("b", "d"));
+
+        // Assert
+        assertTrue(overflow.isEmpty());
+        assertTrue(coalesced.isPresent());
+        assertEquals(2, buffer.pendingCount());
+    }
+
+    @Test
+    void givenWriteBehindDisabled_whenBuffer_thenReturnEmpty() {
+        // Arrange
+        taskProperties.getWriteBehind().setEnabled(false);
+
+        // Act
+        Optional<TaskResponseDto> result = buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(taskRepo, transactionManager);
+    }
+
+    @Test
+    void givenBufferedUpdate_whenDiscard_thenNothingIsWritten() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(10L, 1L)).thenReturn(Optional.of(0L));
+        buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+
+        // Act
+        buffer.discard(1L, 10L);
+        buffer.flushAll();
+
+        // Assert
+        assertFalse(buffer.hasPending(1L));
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void givenFailingFlush_whenFlushDue_thenUpdateStaysBufferedForRetry() {
+        // Arrange
+        when(taskRepo.findVersionByIdAndUserId(10L, 1L)).thenReturn(Optional.of(0L));
+        failNextBatch = true;
+        buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+
+        // Act
+        buffer.flushDue();
+
+        // Assert
+        assertEquals(1, buffer.pendingCount());
+        assertEquals("a", buffer.find(1L, 10L).orElseThrow().getTitle());
+        buffer.flushDue();
+        assertEquals(0, buffer.pendingCount());
+        assertEquals(List.of(List.of(List.of("a", "d", 1L, 10L, 1L))), batches);
+    }
+
+    @Test
+    void givenSeveralDueTasks_whenFlushDue_thenWriteThemInOneBatch() {
+        // Arrange
+        taskProperties.getWriteBehind().setMaxPendingTasks(3);
+        when(taskRepo.findVersionByIdAndUserId(anyLong(), anyLong())).thenReturn(Optional.of(0L));
+        buffer.buffer(1L, 10L, TaskTestDataFactory.createTaskRequestDto("a", "d"));
+        buffer.buffer(1L, 11L, TaskTestDataFactory.createTaskRequestDto("b", "d"));
+        buffer.buffer(2L, 20L, TaskTestDataFactory.createTaskRequestDto("c", "d"));
+
+        // Act
+        buffer.flushDue();
+
+        // Assert
+        assertEquals(1, batches.size());
+        assertEquals(List.of(10L, 11L, 20L), batches.getFirst().stream().map(row -> row.get(3)).sorted().toList());
+        verify(transactionManager).commit(any());
+    }
+
+    // Applies the statement setter to each batched item, as JdbcTemplate would, and records what it set
+    private int[][] recordBatch(InvocationOnMock invocation) throws SQLException {
+        if (failNextBatch) {
+            failNextBatch = false;
+            throw new QueryTimeoutException("timeout");
+        }
+        Collection<Object> items = invocation.getArgument(1);
+        ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+        List<List<Object>> rows = new ArrayList<>();
+        for (Object item : items) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            PreparedStatement statement = mock(PreparedStatement.class, call -> {
+                parameters.put(call.getArgument(0), call.getArgument(1));
+                return null;
+            });
+            setter.setValues(statement, item);
+            rows.add(List.copyOf(parameters.values()));
+        }
+        batches.add(rows);
+        int[] counts = new int[rows.size()];
+        Arrays.fill(counts, 1);
+        return new int[][]{counts};
+    }
+
+}
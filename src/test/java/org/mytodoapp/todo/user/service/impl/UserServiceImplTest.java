@@ -13,11 +13,14 @@ import org.mytodoapp.todo.user.dto.UserResponseDto;
 import org.mytodoapp.todo.user.dto.UserUpdateDto;
 import org.mytodoapp.todo.user.entity.Role;
 import org.mytodoapp.todo.user.entity.User;
+import org.mytodoapp.todo.user.event.UserDeletedEvent;
 import org.mytodoapp.todo.user.mapper.UserMapper;
 import org.mytodoapp.todo.user.repo.UserRepo;
 import org.mytodoapp.todo.user.util.UserTestDataFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +36,8 @@ public class UserServiceImplTest {
     private UserMapper userMapper;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -67,7 +72,7 @@ public class UserServiceImplTest {
     void givenValidData_whenAddUser_thenSuccess() {
         // Arrange
         when(userRepo.existsByEmail(createDto.getEmail())).thenReturn(false);
-        when(userRepo.findByUsername(createDto.getUsername())).thenReturn(Optional.empty());
+        when(userRepo.existsByUsername(createDto.getUsername())).thenReturn(false);
         when(userMapper.toEntity(createDto)).thenReturn(user);
         when(passwordEncoder.encode(createDto.getPassword())).thenReturn("encoded password");
         when(userMapper.toResponseDto(user)).thenReturn(responseDto);
@@ -82,7 +87,7 @@ public class UserServiceImplTest {
         assertEquals(responseDto.getEmail(), result.getEmail());
 
         verify(userRepo).existsByEmail(user.getEmail());
-        verify(userRepo).findByUsername(user.getUsername());
+        verify(userRepo).existsByUsername(user.getUsername());
         verify(userMapper).toEntity(createDto);
         verify(passwordEncoder).encode(createDto.getPassword());
         verify(userRepo).save(user);
@@ -106,7 +111,7 @@ public class UserServiceImplTest {
     @Test
     void givenInvalidUsername_whenAddUser_thenThrowsDuplicateResourceException() {
         // Arrange
-        when(userRepo.findByUsername(createDto.getUsername())).thenReturn(Optional.of(user));
+        when(userRepo.existsByUsername(createDto.getUsername())).thenReturn(true);
 
         // Act
         assertThrows(DuplicateResourceException.class,
@@ -114,7 +119,7 @@ public class UserServiceImplTest {
 
         // Assert
         verify(userRepo).existsByEmail(user.getEmail());
-        verify(userRepo).findByUsername(user.getUsername());
+        verify(userRepo).existsByUsername(user.getUsername());
         verifyNoInteractions(userMapper, passwordEncoder);
     }
 
@@ -155,29 +160,32 @@ public class UserServiceImplTest {
     }
 
     @Test
-    void givenValidUser_whenDeleteUser_thenSuccess() {
+    void givenValidUser_whenDeleteUser_thenSoftDeleteWithoutLoading() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userRepo.softDeleteById(eq(user.getId()), any(Instant.class))).thenReturn(1);
 
         // Act
         userService.delete(user.getId());
 
         // Assert
-        verify(userRepo).findById(user.getId());
-        verify(userRepo).deleteById(user.getId());
+        verify(userRepo).softDeleteById(eq(user.getId()), any(Instant.class));
+        verify(userRepo, never()).findById(any());
+        verify(userRepo, never()).deleteById(any());
+        verify(eventPublisher).publishEvent(new UserDeletedEvent(user.getId()));
     }
 
     @Test
     void givenInvalidUser_whenDeleteUser_thenThrowsRecordNotFoundException() {
         // Arrange
-        when(userRepo.findById(user.getId())).thenReturn(Optional.empty());
+        when(userRepo.softDeleteById(eq(user.getId()), any(Instant.class))).thenReturn(0);
 
         // Act
         assertThrows(RecordNotFoundException.class,
                 () -> userService.delete(user.getId()));
 
         // Assert
-        verify(userRepo).findById(user.getId());
+        verify(userRepo).softDeleteById(eq(user.getId()), any(Instant.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test